@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.radolan.benchmark.Fixtures.Fixture;
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.LittleEndian;
+import cs.fau.de.since.radolan.RunLength;
+import cs.fau.de.since.radolan.SingleByte;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * latency of the data decoders on an already read composite
+ * 
+ * @author wf
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DecoderBenchmark {
+
+  /**
+   * a composite that has been read and parsed once
+   */
+  public abstract static class CompositeState {
+    Composite composite;
+
+    public void setup(Fixture fixture) throws Throwable {
+      composite = new Composite(
+          new ByteArrayInputStream(Fixtures.getBytes(fixture)));
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class LittleEndianState extends CompositeState {
+    @Param({ "RW", "SF", "RY" })
+    Fixture fixture;
+
+    @Setup
+    public void setup() throws Throwable {
+      setup(fixture);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class SingleByteState extends CompositeState {
+    @Param({ "WX", "RX" })
+    Fixture fixture;
+
+    @Setup
+    public void setup() throws Throwable {
+      setup(fixture);
+    }
+  }
+
+  @Benchmark
+  public Composite littleEndian(LittleEndianState state) {
+    Composite c = state.composite;
+    c.getStatistics().clear();
+    LittleEndian.parseLittleEndian(c);
+    return c;
+  }
+
+  /**
+   * the row by row decoding via Composite.getByte for comparison with the
+   * bulk decoding of LittleEndian.parseLittleEndian
+   * 
+   * @param state
+   * @return the composite
+   * @throws Exception
+   */
+  @Benchmark
+  public Composite littleEndianRowByRow(LittleEndianState state)
+      throws Exception {
+    Composite c = state.composite;
+    c.getStatistics().clear();
+    int last = c.getGrid().getHeight() - 1;
+    for (int y = 0; y <= last; y++) {
+      byte[] line = LittleEndian.readRowLittleEndian(c, y);
+      LittleEndian.decodeYLineLittleEndian(c, last - y, c.getPx(), line);
+    }
+    return c;
+  }
+
+  @State(Scope.Thread)
+  public static class RunLengthState extends CompositeState {
+    @Param({ "PG" })
+    Fixture fixture;
+
+    @Setup
+    public void setup() throws Throwable {
+      setup(fixture);
+    }
+  }
+
+  /**
+   * the data section of a composite and a destination for all values
+   */
+  @State(Scope.Thread)
+  public static class KernelState extends CompositeState {
+    @Param({ "RW", "RY" })
+    Fixture fixture;
+
+    float[] values;
+
+    @Setup
+    public void setup() throws Throwable {
+      setup(fixture);
+      values = new float[composite.getPx() * composite.getPy()];
+    }
+  }
+
+  /**
+   * the table lookup kernel without statistics
+   * 
+   * @param state
+   * @return the values
+   */
+  @Benchmark
+  public float[] littleEndianTableKernel(KernelState state) {
+    Composite c = state.composite;
+    LittleEndian.decodeLittleEndian(c, c.bytes, c.getDataOffset(),
+        state.values, 0, state.values.length);
+    return state.values;
+  }
+
+  /**
+   * the branch free arithmetic kernel without statistics
+   * 
+   * @param state
+   * @return the values
+   */
+  @Benchmark
+  public float[] littleEndianBranchFreeKernel(KernelState state) {
+    Composite c = state.composite;
+    LittleEndian.decodeLittleEndianBranchFree(c, c.bytes, c.getDataOffset(),
+        state.values, 0, state.values.length);
+    return state.values;
+  }
+
+  @Benchmark
+  public Composite singleByte(SingleByteState state) {
+    Composite c = state.composite;
+    c.getStatistics().clear();
+    SingleByte.parseSingleByte(c);
+    return c;
+  }
+
+  @Benchmark
+  public Composite runLength(RunLengthState state) {
+    Composite c = state.composite;
+    c.getStatistics().clear();
+    RunLength.parseRunlength(c);
+    return c;
+  }
+}
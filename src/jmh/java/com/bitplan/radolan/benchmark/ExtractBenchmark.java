@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.geo.DPoint;
+import com.bitplan.radolan.benchmark.Fixtures.Fixture;
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.PointExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * latency per file of extracting the values of some points from a series of
+ * composite files - loading each composite and calling getValueAtCoord
+ * compared to the PointExtractor
+ * 
+ * @author wf
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExtractBenchmark {
+  static final int FILES = 24;
+
+  @Param({ "RW", "RY", "WX" })
+  Fixture fixture;
+
+  @Param({ "100" })
+  int points;
+
+  List<File> files = new ArrayList<File>();
+  double[] north;
+  double[] east;
+
+  @Setup
+  public void setup() throws Throwable {
+    byte[] bytes = Fixtures.getBytes(fixture);
+    File directory = Files.createTempDirectory("extract").toFile();
+    for (int i = 0; i < FILES; i++) {
+      File file = new File(directory, fixture.name() + i);
+      Files.write(file.toPath(), bytes);
+      files.add(file);
+    }
+    Random random = new Random(4711);
+    north = new double[points];
+    east = new double[points];
+    for (int p = 0; p < points; p++) {
+      north[p] = 47.5 + random.nextDouble() * 7.0;
+      east[p] = 6.0 + random.nextDouble() * 9.0;
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    for (File file : files) {
+      file.delete();
+    }
+    files.get(0).getParentFile().delete();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(FILES)
+  public float[][] composites() throws Throwable {
+    float[][] series = new float[points][files.size()];
+    for (int time = 0; time < files.size(); time++) {
+      Composite c = new Composite(new FileInputStream(files.get(time)));
+      for (int p = 0; p < points; p++) {
+        series[p][time] = c.getValueAtCoord(new DPoint(north[p], east[p]));
+      }
+    }
+    return series;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(FILES)
+  public float[][] extractor() throws Throwable {
+    return new PointExtractor(north, east).extractFiles(files, null);
+  }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.util.CachedUrl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * RADOLAN input data for the benchmarks - either the checked-in test data
+ * files or synthetic composites with the dimensions and encodings of the
+ * products we ingest
+ * 
+ * @author wf
+ *
+ */
+public class Fixtures {
+  public static final String TEST_DATA = "src/test/data/";
+
+  /**
+   * the products available as benchmark input
+   */
+  public enum Fixture {
+    RW("little endian 900x900 mm - synthetic"), //
+    SF("little endian 900x900 mm - src/test/data/history"), //
+    RY("little endian 1100x900 mm - synthetic"), //
+    RV("little endian 1200x1100 dBZ - synthetic"), //
+    HG("little endian 1500x1400 mm - synthetic"), //
+    WX("single byte 1100x900 dBZ - src/test/data/wx"), //
+    RX("single byte 900x900 dBZ - synthetic"), //
+    PG("run length 460x460 dBZ - synthetic");
+
+    private String comment;
+
+    Fixture(String comment) {
+      this.comment = comment;
+    }
+
+    @Override
+    public String toString() {
+      return name() + " (" + comment + ")";
+    }
+  }
+
+  /**
+   * get the uncompressed bytes of the given fixture
+   * 
+   * @param fixture
+   * @return - the bytes of a complete RADOLAN file
+   * @throws Exception
+   */
+  public static byte[] getBytes(Fixture fixture) throws Exception {
+    switch (fixture) {
+    case RW:
+      return littleEndian("RW", 900, 900, 60);
+    case SF:
+      return readFile("history/raa01-sf_10000-1805301650-dwd---bin.gz");
+    case RY:
+      return littleEndian("RY", 900, 1100, 5);
+    case RV:
+      return littleEndian("RV", 1100, 1200, 5);
+    case HG:
+      return littleEndian("HG", 1400, 1500, 5);
+    case WX:
+      return readFile("wx/raa01-wx_10000-2007240725-dwd---bin");
+    case RX:
+      return singleByte("RX", 900, 900);
+    case PG:
+      return runLength(460, 460);
+    }
+    throw new IllegalArgumentException("unknown fixture " + fixture);
+  }
+
+  /**
+   * read the given (potentially gzipped) test data file
+   * 
+   * @param path
+   *          - path relative to the test data directory
+   * @return - the uncompressed bytes
+   * @throws Exception
+   */
+  public static byte[] readFile(String path) throws Exception {
+    File file = new File(TEST_DATA + path);
+    if (!file.exists())
+      throw new IllegalStateException(
+          "fixture " + file.getPath() + " missing - run from project root");
+    try (InputStream in = new FileInputStream(file)) {
+      return CachedUrl.readBytes(in);
+    }
+  }
+
+  /**
+   * create a composite header for the given parameters
+   * 
+   * @param product
+   * @param dx
+   * @param dy
+   * @param interval
+   * @param precision
+   * @param dataLength
+   * @return the header including the 0x03 terminator
+   */
+  public static String header(String product, int dx, int dy, int interval,
+      String precision, int dataLength) {
+    // the header length does not depend on the BY value since it has fixed
+    // width
+    String format = "%s241650100000720BY%7dVS 3SW   2.21.0PR E%sINT%4dGP%4dx%4dMS  2<>\u0003";
+    int headerLength = String
+        .format(format, product, 0, precision, interval, dy, dx).length();
+    return String.format(format, product, headerLength + dataLength,
+        precision, interval, dy, dx);
+  }
+
+  /**
+   * concatenate header and data
+   * 
+   * @param header
+   * @param data
+   * @return the file content
+   */
+  protected static byte[] file(String header, byte[] data) {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    byte[] headerBytes = header.getBytes(StandardCharsets.ISO_8859_1);
+    bout.write(headerBytes, 0, headerBytes.length);
+    bout.write(data, 0, data.length);
+    return bout.toByteArray();
+  }
+
+  /**
+   * create a synthetic little endian composite with roughly 10% no-data
+   * pixels and some negative values
+   * 
+   * @param product
+   * @param dx
+   * @param dy
+   * @param interval
+   * @return the file content
+   */
+  public static byte[] littleEndian(String product, int dx, int dy,
+      int interval) {
+    Random random = new Random(4711);
+    byte[] data = new byte[dx * dy * 2];
+    for (int i = 0; i < dx * dy; i++) {
+      int value = random.nextInt(4096);
+      int flags = 0;
+      int r = random.nextInt(100);
+      if (r < 10)
+        flags = 1 << 5; // no-data
+      else if (r < 12)
+        flags = 1 << 6; // negative
+      data[2 * i] = (byte) (value & 0xFF);
+      data[2 * i + 1] = (byte) (((value >> 8) & 0x0F) | flags);
+    }
+    return file(header(product, dx, dy, interval, "-01", data.length), data);
+  }
+
+  /**
+   * create a synthetic single byte composite
+   * 
+   * @param product
+   * @param dx
+   * @param dy
+   * @return the file content
+   */
+  public static byte[] singleByte(String product, int dx, int dy) {
+    Random random = new Random(4711);
+    byte[] data = new byte[dx * dy];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (random.nextInt(100) < 10 ? 250 : random.nextInt(250));
+    }
+    return file(header(product, dx, dy, 5, "+00", data.length), data);
+  }
+
+  /**
+   * create a synthetic run length encoded local picture product
+   * 
+   * @param dx
+   * @param dy
+   * @return the file content
+   */
+  public static byte[] runLength(int dx, int dy) {
+    Random random = new Random(4711);
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    for (int y = 0; y < dy; y++) {
+      bout.write(16 + y % 200); // line number - never the 0x0A terminator
+      bout.write(16); // no offset
+      int x = 0;
+      while (x < dx) {
+        int run = Math.min(1 + random.nextInt(15), dx - x);
+        int level = random.nextInt(8); // 0: no-data, 7: border marking
+        bout.write((run << 4) | level);
+        x += run;
+      }
+      bout.write(0x0A);
+    }
+    byte[] data = bout.toByteArray();
+    String format = "PG241650100000720BY%6dLV 6  1.0 19.0 28.0 37.0 46.0 55.0CS0MX 0MS 0<> BG%03d%03d\u0003";
+    int headerLength = String.format(format, 0, dy, dx).length();
+    String header = String.format(format, headerLength + data.length, dy, dx);
+    return file(header, data);
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.radolan.benchmark.Fixtures.Fixture;
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.GridFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * parsing composites into the different grid backends - run with -prof gc
+ * to compare the heap allocation. The points benchmark reads the values of
+ * a few stations as done for time series
+ * 
+ * @author wf
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GridBenchmark {
+
+  @Param({ "RW", "RY", "WX" })
+  Fixture fixture;
+
+  @Param({ "HEAP", "DIRECT", "QUANTIZED", "LAZY" })
+  String grid;
+
+  byte[] bytes;
+  GridFactory gridFactory;
+
+  @Setup
+  public void setup() throws Exception {
+    bytes = Fixtures.getBytes(fixture);
+    switch (grid) {
+    case "DIRECT":
+      gridFactory = GridFactory.DIRECT;
+      break;
+    case "QUANTIZED":
+      gridFactory = GridFactory.QUANTIZED;
+      break;
+    case "LAZY":
+      gridFactory = GridFactory.LAZY;
+      break;
+    default:
+      gridFactory = GridFactory.HEAP;
+    }
+  }
+
+  @Benchmark
+  public Composite composite() throws Throwable {
+    return new Composite(new ByteArrayInputStream(bytes), gridFactory);
+  }
+
+  @Benchmark
+  public float points() throws Throwable {
+    Composite c = new Composite(new ByteArrayInputStream(bytes), gridFactory);
+    float sum = 0;
+    for (int i = 1; i <= 10; i++) {
+      sum += c.getValue(c.getPx() * i / 11, c.getPy() * i / 11);
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.radolan.benchmark.Fixtures.Fixture;
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.Header;
+import cs.fau.de.since.radolan.HeaderScanner;
+import cs.fau.de.since.radolan.RadolanHeader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * latency of parsing the header of an already read composite via the
+ * section map of Header.splitHeader and via the single pass HeaderScanner and
+ * of reading only the header with RadolanHeader
+ * 
+ * @author wf
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeaderBenchmark {
+
+  @State(Scope.Thread)
+  public static class HeaderState {
+    @Param({ "RW", "WX", "PG", "SF" })
+    Fixture fixture;
+
+    byte[] bytes;
+    Composite composite;
+
+    @Setup
+    public void setup() throws Throwable {
+      bytes = Fixtures.getBytes(fixture);
+      composite = new Composite();
+      composite.read(new ByteArrayInputStream(bytes));
+    }
+  }
+
+  @Benchmark
+  public Composite sections(HeaderState state) throws Exception {
+    Header.parseHeaderSections(state.composite);
+    return state.composite;
+  }
+
+  @Benchmark
+  public Composite scanner(HeaderState state) throws Exception {
+    Composite c = state.composite;
+    HeaderScanner scanner = new HeaderScanner();
+    scanner.scan(c.bytes, c.getDataOffset());
+    scanner.apply(c);
+    return c;
+  }
+
+  /**
+   * read only the header from the (potentially zipped) bytes
+   * 
+   * @param state
+   * @return the header
+   * @throws Exception
+   */
+  @Benchmark
+  public RadolanHeader readHeader(HeaderState state) throws Exception {
+    return RadolanHeader.read(new ByteArrayInputStream(state.bytes));
+  }
+}
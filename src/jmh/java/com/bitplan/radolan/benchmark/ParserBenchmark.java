@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.radolan.FloatGrid;
+import com.bitplan.radolan.benchmark.Fixtures.Fixture;
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.CompositeParser;
+import cs.fau.de.since.radolan.CornerPoints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * latency of loading a new composite for each file compared to parsing with
+ * a reused CompositeParser and to parsing only the region of a federal state
+ * - run with -prof gc to see the allocation rate
+ * 
+ * @author wf
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+  @Param({ "RW", "SF", "WX" })
+  Fixture fixture;
+
+  // about 180 x 250 km
+  static final CornerPoints HESSE = new CornerPoints(51.7, 7.7, 49.4, 10.3);
+
+  byte[] bytes;
+  CompositeParser parser;
+  FloatGrid grid;
+
+  @Setup
+  public void setup() throws Throwable {
+    bytes = Fixtures.getBytes(fixture);
+    parser = new CompositeParser();
+    Composite c = parser.parse(new ByteArrayInputStream(bytes));
+    grid = new FloatGrid(c.getPx(), c.getPy());
+  }
+
+  @TearDown
+  public void tearDown() {
+    parser.close();
+  }
+
+  @Benchmark
+  public Composite composite() throws Throwable {
+    return new Composite(new ByteArrayInputStream(bytes));
+  }
+
+  @Benchmark
+  public Composite parser() throws Throwable {
+    return parser.parse(new ByteArrayInputStream(bytes), grid);
+  }
+
+  @Benchmark
+  public Composite parserRegion() throws Throwable {
+    return parser.parseRegion(new ByteArrayInputStream(bytes), HESSE);
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.radolan.benchmark.Fixtures.Fixture;
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.Header;
+import cs.fau.de.since.radolan.Translate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * latency of the single phases of parsing a composite: read (including the
+ * header), parseHeader and parseData
+ * 
+ * @author wf
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhaseBenchmark {
+
+  @Param
+  Fixture fixture;
+
+  byte[] bytes;
+  Composite composite;
+
+  @Setup
+  public void setup() throws Exception {
+    bytes = Fixtures.getBytes(fixture);
+    composite = new Composite();
+    composite.read(new ByteArrayInputStream(bytes));
+  }
+
+  @Benchmark
+  public Composite read() throws Exception {
+    Composite c = new Composite();
+    c.read(new ByteArrayInputStream(bytes));
+    return c;
+  }
+
+  @Benchmark
+  public Composite parseHeader() throws Exception {
+    Header.parseHeader(composite);
+    return composite;
+  }
+
+  @Benchmark
+  public Composite parseData() throws Throwable {
+    composite.getStatistics().clear();
+    composite.parseData();
+    return composite;
+  }
+
+  /**
+   * the calibration shared by all composites of the grid
+   * 
+   * @return the composite
+   */
+  @Benchmark
+  public Composite calibrateProjection() {
+    composite.calibrateProjection();
+    return composite;
+  }
+
+  /**
+   * the calibration computed for the composite
+   * 
+   * @return the composite
+   */
+  @Benchmark
+  public Composite calibrateProjectionUncached() {
+    Translate.calibrateProjection(composite);
+    return composite;
+  }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan.benchmark;
+
+import com.bitplan.geo.DPoint;
+import com.bitplan.radolan.benchmark.Fixtures.Fixture;
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.ProjectionTable;
+import cs.fau.de.since.radolan.Translate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * latency of translating 10000 coordinates of a composite with the
+ * translation functions and with the projection table
+ * 
+ * @author wf
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TranslateBenchmark {
+  static final int POINTS = 10000;
+
+  Composite composite;
+  ProjectionTable table;
+  double[] lat = new double[POINTS];
+  double[] lon = new double[POINTS];
+  DPoint[] coords = new DPoint[POINTS];
+  double[] x = new double[POINTS];
+  double[] y = new double[POINTS];
+  int[] indices = new int[POINTS];
+
+  @Setup
+  public void setup() throws Throwable {
+    composite = new Composite(
+        new ByteArrayInputStream(Fixtures.getBytes(Fixture.RW)));
+    table = composite.getProjectionTable();
+    Random random = new Random(4711);
+    for (int i = 0; i < POINTS; i++) {
+      lat[i] = 47 + random.nextDouble() * 8;
+      lon[i] = 6 + random.nextDouble() * 9;
+      coords[i] = new DPoint(lat[i], lon[i]);
+    }
+    table.getLat(0, 0); // build the tables
+  }
+
+  @Benchmark
+  public double latLonToGrid() {
+    double sum = 0;
+    for (int i = 0; i < POINTS; i++) {
+      DPoint p = composite.translateLatLonToGrid(lat[i], lon[i]);
+      sum += p.x + p.y;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double latLonToGridTable() {
+    double sum = 0;
+    for (int i = 0; i < POINTS; i++) {
+      sum += table.gridIndex(lat[i], lon[i]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double[] latLonToGridBatch() {
+    Translate.translate(composite, lat, lon, x, y);
+    return x;
+  }
+
+  @Benchmark
+  public int[] latLonToGridIndices() {
+    table.gridIndices(lat, lon, indices);
+    return indices;
+  }
+
+  @Benchmark
+  public double valueAtCoord() {
+    double sum = 0;
+    for (int i = 0; i < POINTS; i++) {
+      sum += composite.getValueAtCoord(coords[i]);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double gridToLatLon() {
+    double sum = 0;
+    for (int i = 0; i < POINTS; i++) {
+      DPoint p = composite
+          .translateGridToLatLon(new DPoint(i % 900, i / 900 * 80));
+      sum += p.x + p.y;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double gridToLatLonTable() {
+    double sum = 0;
+    for (int i = 0; i < POINTS; i++) {
+      int x = i % 900;
+      int y = i / 900 * 80;
+      sum += table.getLat(x, y) + table.getLon(x, y);
+    }
+    return sum;
+  }
+}
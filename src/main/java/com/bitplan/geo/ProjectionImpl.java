@@ -139,6 +139,21 @@ public class ProjectionImpl implements GeoProjection {
     return Translate.translate(this, lat, lon);
   }
 
+  /**
+   * translate the given coordinates to grid coordinates in one call
+   * 
+   * @param lat
+   * @param lon
+   * @param x
+   *          - the x grid coordinates
+   * @param y
+   *          - the y grid coordinates
+   */
+  public void translateLatLonToGrid(double[] lat, double[] lon, double[] x,
+      double[] y) {
+    Translate.translate(this, lat, lon, x, y);
+  }
+
   /**
    * translate a coordinate to lat/lon
    * 
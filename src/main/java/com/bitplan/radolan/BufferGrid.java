@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Grid implementation backed by a FloatBuffer outside of the java heap -
+ * either a direct buffer or a memory mapped file
+ * 
+ * @author wf
+ *
+ */
+public class BufferGrid implements Grid {
+  private final int width;
+  private final int height;
+  private final ByteBuffer byteBuffer; // native order view of the buffer
+  private final MappedByteBuffer mapped; // null if the buffer is not mapped
+  private final FloatBuffer data; // value at x,y is data.get(y * width + x)
+
+  /**
+   * create a grid with the given width and height on the given buffer
+   * 
+   * @param width
+   * @param height
+   * @param byteBuffer
+   *          - a buffer with room for at least width x height floats - its
+   *          byte order is left unchanged
+   */
+  public BufferGrid(int width, int height, ByteBuffer byteBuffer) {
+    if (byteBuffer.capacity() < width * height * Float.BYTES)
+      throw new IllegalArgumentException(String.format(
+          "buffer of %d bytes too small for %d x %d grid",
+          byteBuffer.capacity(), width, height));
+    this.width = width;
+    this.height = height;
+    this.byteBuffer = byteBuffer.duplicate().order(ByteOrder.nativeOrder());
+    // only the original mapping can be forced to its file
+    this.mapped = byteBuffer instanceof MappedByteBuffer
+        ? (MappedByteBuffer) byteBuffer : null;
+    this.data = this.byteBuffer.asFloatBuffer();
+  }
+
+  /**
+   * create a grid with the given width and height in a direct buffer
+   * 
+   * @param width
+   * @param height
+   * @return - the grid
+   */
+  public static BufferGrid allocateDirect(int width, int height) {
+    return new BufferGrid(width, height,
+        ByteBuffer.allocateDirect(width * height * Float.BYTES));
+  }
+
+  /**
+   * create a grid with the given width and height mapped to the given file.
+   * The file is created or extended as needed and keeps its content - other
+   * processes mapping the same file share the values via the page cache
+   * 
+   * @param file
+   * @param width
+   * @param height
+   * @return - the grid
+   * @throws Exception
+   */
+  public static BufferGrid map(File file, int width, int height)
+      throws Exception {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        FileChannel channel = raf.getChannel()) {
+      MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0,
+          (long) width * height * Float.BYTES);
+      // the mapping stays valid after closing the channel
+      return new BufferGrid(width, height, buffer);
+    }
+  }
+
+  /**
+   * get the buffer holding the values
+   * 
+   * @return - the buffer in native byte order
+   */
+  public ByteBuffer getBuffer() {
+    return byteBuffer;
+  }
+
+  /**
+   * write the content of a memory mapped grid to its file
+   */
+  public void force() {
+    if (mapped != null)
+      mapped.force();
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public float getValue(int x, int y) {
+    return data.get(y * width + x);
+  }
+
+  @Override
+  public void setValue(int x, int y, float value) {
+    data.put(y * width + x, value);
+  }
+
+  @Override
+  public void setRow(int y, float[] src, int srcPos) {
+    int offset = y * width;
+    for (int x = 0; x < width; x++) {
+      data.put(offset + x, src[srcPos + x]);
+    }
+  }
+
+  @Override
+  public void getRow(int y, float[] dst, int dstPos) {
+    int offset = y * width;
+    for (int x = 0; x < width; x++) {
+      dst[dstPos + x] = data.get(offset + x);
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan;
+
+/**
+ * Grid implementation with a flat row major float array
+ * 
+ * @author wf
+ *
+ */
+public class FloatGrid implements Grid {
+  private final int width;
+  private final int height;
+  private final float[] data; // value at x,y is data[y * width + x]
+
+  /**
+   * create a grid with the given width and height
+   * 
+   * @param width
+   * @param height
+   */
+  public FloatGrid(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.data = new float[width * height];
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * get the backing array
+   * 
+   * @return - the row major values
+   */
+  public float[] getData() {
+    return data;
+  }
+
+  /**
+   * get the position of the first value of the given row in the backing array
+   * 
+   * @param y
+   * @return - the offset
+   */
+  public int getOffset(int y) {
+    return y * width;
+  }
+
+  @Override
+  public float getValue(int x, int y) {
+    return data[y * width + x];
+  }
+
+  @Override
+  public void setValue(int x, int y, float value) {
+    data[y * width + x] = value;
+  }
+
+  @Override
+  public void setRow(int y, float[] src, int srcPos) {
+    System.arraycopy(src, srcPos, data, y * width, width);
+  }
+
+  @Override
+  public void getRow(int y, float[] dst, int dstPos) {
+    System.arraycopy(data, y * width, dst, dstPos, width);
+  }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan;
+
+/**
+ * a two dimensional grid of float values e.g. the data of a radar image
+ * 
+ * @author wf
+ *
+ */
+public interface Grid {
+
+  /**
+   * get the number of values per row
+   * 
+   * @return - the width
+   */
+  public int getWidth();
+
+  /**
+   * get the number of rows
+   * 
+   * @return - the height
+   */
+  public int getHeight();
+
+  /**
+   * get the value at the given grid position - the position is not checked
+   * 
+   * @param x
+   * @param y
+   * @return - the value
+   */
+  public float getValue(int x, int y);
+
+  /**
+   * set the value at the given grid position - the position is not checked
+   * 
+   * @param x
+   * @param y
+   * @param value
+   */
+  public void setValue(int x, int y, float value);
+
+  /**
+   * set the row y from the given source
+   * 
+   * @param y
+   *          - the row to set
+   * @param src
+   *          - the source with at least width values starting at srcPos
+   * @param srcPos
+   *          - the position of the first value in src
+   */
+  public void setRow(int y, float[] src, int srcPos);
+
+  /**
+   * copy the row y to the given destination
+   * 
+   * @param y
+   *          - the row to get
+   * @param dst
+   *          - the destination with room for width values starting at dstPos
+   * @param dstPos
+   *          - the position of the first value in dst
+   */
+  public void getRow(int y, float[] dst, int dstPos);
+}
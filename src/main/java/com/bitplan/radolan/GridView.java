@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan;
+
+/**
+ * a view on consecutive rows of another grid - values are not copied but
+ * read from and written to the backing grid
+ * 
+ * @author wf
+ *
+ */
+public class GridView implements Grid {
+  private final Grid grid;
+  private final int rowOffset;
+  private final int height;
+
+  /**
+   * create a view on the given number of rows of the grid starting at
+   * rowOffset
+   * 
+   * @param grid
+   *          - the backing grid
+   * @param rowOffset
+   *          - the first row of the backing grid in this view
+   * @param height
+   *          - the number of rows
+   */
+  public GridView(Grid grid, int rowOffset, int height) {
+    if (rowOffset < 0 || height < 0
+        || rowOffset + height > grid.getHeight())
+      throw new IllegalArgumentException(String.format(
+          "rows %d to %d are not within the grid of height %d", rowOffset,
+          rowOffset + height, grid.getHeight()));
+    this.grid = grid;
+    this.rowOffset = rowOffset;
+    this.height = height;
+  }
+
+  public Grid getGrid() {
+    return grid;
+  }
+
+  public int getRowOffset() {
+    return rowOffset;
+  }
+
+  @Override
+  public int getWidth() {
+    return grid.getWidth();
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public float getValue(int x, int y) {
+    return grid.getValue(x, rowOffset + y);
+  }
+
+  @Override
+  public void setValue(int x, int y, float value) {
+    grid.setValue(x, rowOffset + y, value);
+  }
+
+  @Override
+  public void setRow(int y, float[] src, int srcPos) {
+    grid.setRow(rowOffset + y, src, srcPos);
+  }
+
+  @Override
+  public void getRow(int y, float[] dst, int dstPos) {
+    grid.getRow(rowOffset + y, dst, dstPos);
+  }
+}
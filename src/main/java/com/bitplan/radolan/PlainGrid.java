@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan;
+
+/**
+ * Grid implementation with a float array per row - the rows are the
+ * PlainData [y][x] arrays of a composite
+ * 
+ * @author wf
+ *
+ */
+public class PlainGrid implements Grid {
+  private final int width;
+  private final float[][] rows; // value at x,y is rows[y][x]
+
+  /**
+   * create a grid with the given width and height
+   * 
+   * @param width
+   * @param height
+   */
+  public PlainGrid(int width, int height) {
+    this(new float[height][width]);
+  }
+
+  /**
+   * create a grid on the given rows - the rows are not copied
+   * 
+   * @param rows
+   *          - the [y][x] rows which all need to have the same length
+   */
+  public PlainGrid(float[][] rows) {
+    this.width = rows.length == 0 ? 0 : rows[0].length;
+    for (float[] row : rows) {
+      if (row.length != width)
+        throw new IllegalArgumentException(String.format(
+            "PlainGrid: row of %d values does not fit width %d", row.length,
+            width));
+    }
+    this.rows = rows;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return rows.length;
+  }
+
+  public float[][] getRows() {
+    return rows;
+  }
+
+  @Override
+  public float getValue(int x, int y) {
+    return rows[y][x];
+  }
+
+  @Override
+  public void setValue(int x, int y, float value) {
+    rows[y][x] = value;
+  }
+
+  @Override
+  public void setRow(int y, float[] src, int srcPos) {
+    System.arraycopy(src, srcPos, rows[y], 0, width);
+  }
+
+  @Override
+  public void getRow(int y, float[] dst, int dstPos) {
+    System.arraycopy(rows[y], 0, dst, dstPos, width);
+  }
+}
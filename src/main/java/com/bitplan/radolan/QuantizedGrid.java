@@ -0,0 +1,187 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan;
+
+/**
+ * Grid implementation that keeps the raw integer values of a radar image as
+ * short or byte values - a value is decoded on access as
+ * (float) (raw * scale) + offset
+ * 
+ * @author wf
+ *
+ */
+public class QuantizedGrid implements Grid {
+  // raw value of a short grid for which NaN is returned
+  public static final short NO_DATA = Short.MIN_VALUE;
+  // unsigned raw value of a byte grid for which NaN is returned - the no-data
+  // code of single byte encoded composites
+  public static final int NO_DATA_BYTE = 250;
+
+  private final int width;
+  private final int height;
+  private final double scale; // factor for the raw value
+  private final float offset; // bias to add to the scaled raw value
+  private final short[] shorts; // raw values of a short grid or null
+  private final byte[] bytes; // unsigned raw values of a byte grid or null
+
+  /**
+   * create a grid with the given width and height
+   * 
+   * @param width
+   * @param height
+   * @param singleByte
+   *          - if true keep unsigned byte values otherwise keep short values
+   * @param scale
+   *          - the factor for the raw values
+   * @param offset
+   *          - the bias to add to the scaled raw values
+   */
+  public QuantizedGrid(int width, int height, boolean singleByte, double scale,
+      float offset) {
+    this.width = width;
+    this.height = height;
+    this.scale = scale;
+    this.offset = offset;
+    if (singleByte) {
+      this.bytes = new byte[width * height];
+      this.shorts = null;
+    } else {
+      this.shorts = new short[width * height];
+      this.bytes = null;
+    }
+  }
+
+  public double getScale() {
+    return scale;
+  }
+
+  public float getOffset() {
+    return offset;
+  }
+
+  /**
+   * check whether raw values are kept as single bytes
+   * 
+   * @return true if raw values are bytes, false if they are shorts
+   */
+  public boolean isSingleByte() {
+    return bytes != null;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * decode the given raw value
+   * 
+   * @param raw
+   * @return - the value
+   */
+  public float decode(int raw) {
+    return (float) (raw * scale) + offset;
+  }
+
+  /**
+   * encode the given value to the nearest raw value
+   * 
+   * @param value
+   * @return - the raw value
+   */
+  public int encode(float value) {
+    if (Float.isNaN(value))
+      return isSingleByte() ? NO_DATA_BYTE : NO_DATA;
+    long raw = Math.round((value - (double) offset) / scale);
+    long min = isSingleByte() ? 0 : NO_DATA + 1;
+    long max = isSingleByte() ? 0xFF : Short.MAX_VALUE;
+    if (raw < min || raw > max || (isSingleByte() && raw == NO_DATA_BYTE))
+      throw new IllegalArgumentException(String.format(
+          "value %f is out of the range of the grid", value));
+    return (int) raw;
+  }
+
+  @Override
+  public float getValue(int x, int y) {
+    int index = y * width + x;
+    int raw = bytes != null ? bytes[index] & 0xFF : shorts[index];
+    if (raw == (bytes != null ? NO_DATA_BYTE : NO_DATA))
+      return Float.NaN;
+    return decode(raw);
+  }
+
+  @Override
+  public void setValue(int x, int y, float value) {
+    setRaw(x, y, encode(value));
+  }
+
+  /**
+   * set the raw value at the given position - NO_DATA or NO_DATA_BYTE for
+   * NaN
+   * 
+   * @param x
+   * @param y
+   * @param raw
+   */
+  public void setRaw(int x, int y, int raw) {
+    int index = y * width + x;
+    if (bytes != null)
+      bytes[index] = (byte) raw;
+    else
+      shorts[index] = (short) raw;
+  }
+
+  /**
+   * set the raw values of the given row of a byte grid from the given
+   * unsigned bytes without decoding them
+   * 
+   * @param y
+   * @param src
+   * @param srcPos
+   */
+  public void setRawRow(int y, byte[] src, int srcPos) {
+    if (bytes == null)
+      throw new IllegalStateException("raw bytes need a single byte grid");
+    System.arraycopy(src, srcPos, bytes, y * width, width);
+  }
+
+  @Override
+  public void setRow(int y, float[] src, int srcPos) {
+    for (int x = 0; x < width; x++) {
+      setValue(x, y, src[srcPos + x]);
+    }
+  }
+
+  @Override
+  public void getRow(int y, float[] dst, int dstPos) {
+    for (int x = 0; x < width; x++) {
+      dst[dstPos + x] = getValue(x, y);
+    }
+  }
+}
@@ -42,6 +42,21 @@ public interface RadarImage extends GeoProjection {
    * @return - the value
    */
   public float getValue(int x, int y);
+
+  /**
+   * get the value at the given grid position of the given layer
+   * @param x
+   * @param y
+   * @param z - the layer
+   * @return - the value
+   */
+  public float getValue(int x, int y, int z);
+
+  /**
+   * get the number of layers
+   * @return - the number of layers
+   */
+  public int getDz();
   
   
   /**
@@ -24,9 +24,11 @@
 package com.bitplan.radolan;
 
 import java.util.Locale;
+import java.util.stream.Collector;
 
 /**
- * base statistic for composite data
+ * base statistic for composite data - a statistics is not thread safe: use
+ * one per thread and merge them
  * 
  * @author wf
  *
@@ -36,6 +38,8 @@ public class Statistics {
   float min;
   float max;
   double sum;
+  double mean; // running mean - see add
+  double m2; // sum of squared differences from the mean
   int count;
   int countNaN;
   private int total;
@@ -52,11 +56,43 @@ public class Statistics {
     clear();
   }
 
+  /**
+   * get a collector that accumulates a stream of values to statistics
+   * 
+   * @return - the collector
+   */
+  public static Collector<Float, Statistics, Statistics> collector() {
+    return Collector.of(Statistics::new, Statistics::add, Statistics::merge,
+        Collector.Characteristics.IDENTITY_FINISH);
+  }
+
+  public float getMin() {
+    return min;
+  }
+
+  public float getMax() {
+    return max;
+  }
+
+  public double getSum() {
+    return sum;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public int getCountNaN() {
+    return countNaN;
+  }
+
   /**
    * clear the statistics
    */
   public void clear() {
     sum = 0;
+    mean = 0;
+    m2 = 0;
     count = 0;
     countNaN=0;
     setTotal(0);
@@ -73,6 +109,24 @@ public class Statistics {
     return sum / count;
   }
 
+  /**
+   * get the (population) variance
+   * 
+   * @return the variance
+   */
+  public double getVariance() {
+    return m2 / count;
+  }
+
+  /**
+   * get the standard deviation
+   * 
+   * @return the standard deviation
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
   /**
    * add a value to the statistics
    * 
@@ -86,12 +140,56 @@ public class Statistics {
     }
     count++;
     sum += value;
+    // Welford's update of the mean and the squared differences
+    double delta = value - mean;
+    mean += delta / count;
+    m2 += delta * (value - mean);
     if (value < min)
       min = value;
     if (value > max)
       max = value;
   }
 
+  /**
+   * add the given number of values starting at pos to the statistics
+   * 
+   * @param values
+   * @param pos
+   *          - the position of the first value
+   * @param length
+   *          - the number of values
+   */
+  public void add(float[] values, int pos, int length) {
+    for (int i = pos; i < pos + length; i++) {
+      add(values[i]);
+    }
+  }
+
+  /**
+   * merge the given statistics e.g. of a part of the data into this one
+   * 
+   * @param other
+   * @return - this statistics
+   */
+  public Statistics merge(Statistics other) {
+    setTotal(getTotal() + other.getTotal());
+    countNaN += other.countNaN;
+    if (other.count > 0) {
+      // Chan's combination of the means and the squared differences
+      int n = count + other.count;
+      double delta = other.mean - mean;
+      mean += delta * other.count / n;
+      m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+      count = n;
+    }
+    sum += other.sum;
+    if (other.min < min)
+      min = other.min;
+    if (other.max > max)
+      max = other.max;
+    return this;
+  }
+
   public String toString() {
     String text = String.format(Locale.ENGLISH,
         "min: %.1f max: %5.1f avg:%4.1f NaN: %7d count: %7d total: %7d", min, max,
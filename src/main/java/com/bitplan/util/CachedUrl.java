@@ -27,10 +27,18 @@ import com.bitplan.radolan.KnownUrl;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.zip.GZIPInputStream;
@@ -56,13 +64,28 @@ public class CachedUrl {
    * @return - the cacheFile
    */
   public static File cacheForUrl(String url, String knownUrl) {
+    return cacheForUrl(url, knownUrl, cacheRootPath);
+  }
+
+  /**
+   * get the cache File for the given url in reference to the given knownUrl
+   * in the given cache directory
+   * 
+   * @param url
+   * @param knownUrl
+   * @param rootPath
+   *          - the cache directory - null for $HOME/.radolan
+   * @return - the cacheFile
+   */
+  public static File cacheForUrl(String url, String knownUrl,
+      String rootPath) {
     if (debug)
       System.out.println(url+"\n\t"+knownUrl);
     String filePath = url.substring(knownUrl.length(), url.length());
-    if (cacheRootPath == null)
-      cacheRootPath = System.getProperty("user.home") + File.separator
+    if (rootPath == null)
+      rootPath = System.getProperty("user.home") + File.separator
           + ".radolan";
-    File cacheRoot = new File(cacheRootPath);
+    File cacheRoot = new File(rootPath);
     if (!cacheRoot.exists()) {
       if (debug)
         LOGGER.log(Level.INFO,
@@ -83,14 +106,42 @@ public class CachedUrl {
    *           - if the URL is malformed
    */
   public static String useCache(String url, String knownUrl) throws Exception {
-    File cacheFile = cacheForUrl(url, knownUrl);
+    return useCache(url, knownUrl, cacheRootPath);
+  }
+
+  /**
+   * use the cache in the given cache directory for the given URL
+   * 
+   * @param url
+   * @param knownUrl
+   * @param rootPath
+   *          - the cache directory - null for $HOME/.radolan
+   * @return - the URL of the cached file
+   * @throws Exception
+   *           - if the URL is malformed
+   */
+  public static String useCache(String url, String knownUrl, String rootPath)
+      throws Exception {
+    File cacheFile = cacheForUrl(url, knownUrl, rootPath);
     if (!cacheFile.exists()) {
       URL uri = new URL(url);
       if (debug)
         LOGGER.log(Level.INFO,
             String.format("caching %s to %s", url, cacheFile.getPath()));
-      // cache the URL content
-      FileUtils.copyURLToFile(uri, cacheFile);
+      // cache the URL content - via a temporary file that is moved in place
+      // so that concurrent readers never see a partial file
+      File cacheDir = cacheFile.getParentFile();
+      cacheDir.mkdirs();
+      File tmpFile = File.createTempFile(cacheFile.getName(), ".tmp",
+          cacheDir);
+      try {
+        FileUtils.copyURLToFile(uri, tmpFile);
+        Files.move(tmpFile.toPath(), cacheFile.toPath(),
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        tmpFile.delete();
+      }
     } else {
       if (debug)
         LOGGER.log(Level.INFO,
@@ -114,13 +165,30 @@ public class CachedUrl {
    */
   public static String checkCache(String url, boolean useCache)
       throws Exception {
+    return checkCache(url, useCache, cacheRootPath);
+  }
+
+  /**
+   * check the cache in the given cache directory for the given url - see
+   * checkCache(url, useCache)
+   * 
+   * @param url
+   * @param useCache
+   *          - true if the cache is active
+   * @param rootPath
+   *          - the cache directory - null for $HOME/.radolan
+   * @return the (potentially replaced)
+   * @throws Exception
+   */
+  public static String checkCache(String url, boolean useCache,
+      String rootPath) throws Exception {
     if (!useCache)
       return url;
     if (url.contains("-latest-"))
       return url;
     for (String knownUrl : KnownUrl.knownUrls) {
       if (url.startsWith(knownUrl)) {
-        return useCache(url, knownUrl);
+        return useCache(url, knownUrl, rootPath);
       }
     }
     return url;
@@ -195,4 +263,64 @@ public class CachedUrl {
     return lbytes;
   }
 
+  /**
+   * get a buffered stream of the content of the given (potentially zipped)
+   * inputstream without reading it completely
+   * 
+   * @param inputStream
+   * @return - the buffered and if necessary unzipping stream
+   * @throws Exception
+   */
+  public static InputStream unzipped(InputStream inputStream)
+      throws Exception {
+    return unzipped(inputStream, 1 << 16);
+  }
+
+  /**
+   * get a buffered stream of the content of the given (potentially zipped)
+   * inputstream without reading more than needed to fill the given buffer
+   * size e.g. to only read the header
+   * 
+   * @param inputStream
+   * @param bufferSize
+   *          - the size of the read and unzip buffers
+   * @return - the buffered and if necessary unzipping stream
+   * @throws Exception
+   */
+  public static InputStream unzipped(InputStream inputStream, int bufferSize)
+      throws Exception {
+    InputStream in = new BufferedInputStream(inputStream, bufferSize);
+    // https://tools.ietf.org/html/rfc1952
+    // check for gzip header
+    in.mark(2);
+    int magic = (in.read() << 8) | in.read();
+    in.reset();
+    if (magic == 0x1f8b) {
+      in = new BufferedInputStream(new GZIPInputStream(in, bufferSize),
+          bufferSize);
+    }
+    return in;
+  }
+
+  /**
+   * memory map the content of the given url if it is a local file e.g. as
+   * returned by checkCache for a cached url
+   * 
+   * @param url
+   * @return - the read only buffer or null if the url is not a local file
+   * @throws Exception
+   */
+  public static MappedByteBuffer map(String url) throws Exception {
+    if (!url.startsWith("file:"))
+      return null;
+    File file = new File(new URI(url));
+    if (!file.isFile())
+      return null;
+    try (FileChannel channel = FileChannel.open(file.toPath(),
+        StandardOpenOption.READ)) {
+      // the mapping stays valid after closing the channel
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
 }
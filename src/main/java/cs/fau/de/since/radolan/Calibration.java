@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.geo.GeoProjection;
+import com.bitplan.geo.GeoRect;
+import com.bitplan.geo.ProjectionImpl;
+import cs.fau.de.since.radolan.Translate.GridType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the result of Translate.calibrateProjection for a grid - the calibration
+ * only depends on the grid dimensions so it is computed once and shared by
+ * all composites of the same grid
+ * 
+ * @author wf
+ *
+ */
+public final class Calibration {
+  // calibrations by grid dimensions
+  private static final Map<Long, Calibration> calibrations = new ConcurrentHashMap<Long, Calibration>();
+
+  private final int width; // grid width Dx
+  private final int height; // grid height Dy
+  private final boolean projection; // coordinate translation available
+  private final GeoRect bounds; // corner points - null if not available
+  private final double offSetX;
+  private final double offSetY;
+  private final double resX;
+  private final double resY;
+
+  /**
+   * calibrate an uncalibrated projection of the given dimensions
+   * 
+   * @param width
+   * @param height
+   */
+  private Calibration(int width, int height) {
+    this.width = width;
+    this.height = height;
+    ProjectionImpl pro = new ProjectionImpl(width, height);
+    pro.setProjection(false); // as a newly created composite
+    Translate.calibrateProjection(pro);
+    projection = pro.isProjection();
+    bounds = pro.getBounds();
+    offSetX = pro.getOffSetX();
+    offSetY = pro.getOffSetY();
+    resX = pro.getResX();
+    resY = pro.getResY();
+  }
+
+  /**
+   * get the calibration for the given grid dimensions
+   * 
+   * @param width
+   * @param height
+   * @return - the shared calibration - a new one if the dimensions are not
+   *         those of a known grid e.g. of a region so that the cache stays
+   *         small
+   */
+  public static Calibration of(int width, int height) {
+    if (Translate.detectGrid(width, height) == GridType.unknownGrid)
+      return new Calibration(width, height);
+    return calibrations.computeIfAbsent(
+        ((long) width << 32) | (height & 0xFFFFFFFFL),
+        k -> new Calibration(width, height));
+  }
+
+  /**
+   * calibrate the given projection - the projection flag is only set and
+   * never cleared as in Translate.calibrateProjection
+   * 
+   * @param pro
+   */
+  public void apply(GeoProjection pro) {
+    if (projection)
+      pro.setProjection(true);
+    pro.setBounds(bounds);
+    pro.setOffSetX(offSetX);
+    pro.setOffSetY(offSetY);
+    pro.setResX(resX);
+    pro.setResY(resY);
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  public boolean isProjection() {
+    return projection;
+  }
+
+  public GeoRect getBounds() {
+    return bounds;
+  }
+
+  public double getOffSetX() {
+    return offSetX;
+  }
+
+  public double getOffSetY() {
+    return offSetY;
+  }
+
+  public double getResX() {
+    return resX;
+  }
+
+  public double getResY() {
+    return resY;
+  }
+}
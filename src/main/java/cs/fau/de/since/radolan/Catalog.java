@@ -87,7 +87,9 @@ public class Catalog {
     }
   }
 
-  static Catalog instance;
+  // the instance is created when the class is initialized which is thread
+  // safe - the catalogs are not modified afterwards
+  static final Catalog instance = new Catalog();
 
   /**
    * singleton default constructor
@@ -194,8 +196,6 @@ public class Catalog {
   }
 
   public static Catalog getInstance() {
-    if (instance == null)
-      instance = new Catalog();
     return instance;
   }
 
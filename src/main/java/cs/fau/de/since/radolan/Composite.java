@@ -26,16 +26,22 @@ package cs.fau.de.since.radolan;
 
 import com.bitplan.geo.DPoint;
 import com.bitplan.geo.GeoProjection;
+import com.bitplan.geo.GeoRect;
 import com.bitplan.geo.IPoint;
 import com.bitplan.geo.ProjectionImpl;
+import com.bitplan.radolan.Grid;
+import com.bitplan.radolan.PlainGrid;
 import com.bitplan.radolan.RadarImage;
 import com.bitplan.radolan.Statistics;
+import com.bitplan.util.ByteBufferInputStream;
 import com.bitplan.util.CachedUrl;
 import cs.fau.de.since.radolan.Catalog.Unit;
 import cs.fau.de.since.radolan.Data.Encoding;
 
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.function.Consumer;
@@ -68,7 +74,7 @@ import java.util.logging.Level;
 //The pixel value at the position (x, y) is represented by
 //c.Data[ y ][ x ] and is stored as raw float value (NaN if the no-data flag
 //is set). Some 3D radar products feature multiple layers in which the voxel
-//at position (x, y, z) is accessible by c.DataZ[ z ][ y ][ x ].
+//at position (x, y, z) is accessible by c.getValue(x, y, z).
 //
 //The data value is used differently depending on the product type:
 //(also consult the DataUnit field of the Composite)
@@ -105,9 +111,23 @@ import java.util.logging.Level;
  */
 public class Composite extends ProjectionImpl implements RadarImage, GeoProjection {
 
+  // the static configuration is used for composites that are not loaded
+  // with an explicit RadolanContext - see RadolanContext.defaults
+
   // by default files from known URL are cached locally
   // see https://github.com/BITPlan/com.bitplan.radolan/issues/3
   public static boolean useCache = true;
+
+  /**
+   * what to keep of the raw file after the data has been decoded - the
+   * retention does not apply to lazy grids which keep their own reference to
+   * the bytes so that HEADER and NONE free no memory with GridFactory.LAZY
+   */
+  public enum Retention {
+    KEEP, // keep the bytes and the header
+    HEADER, // drop the bytes - keep the header
+    NONE // drop the bytes and the header
+  }
   
   private String Product; // composite product label
 
@@ -117,17 +137,36 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
 
   private Unit DataUnit;
 
-  public float[][] PlainData; // data for parsed plain data element [y][x]
+  private Grid grid; // data for parsed plain data element - row major [y][x]
+  // the rows of the grid if it is a PlainGrid - see GridFactory.PLAIN
+  public float[][] PlainData;
+  private final RadolanContext context; // configuration for loading me
+  private GridFactory gridFactory; // creates the grid
+  private Grid[] layers; // data layers - views on the rows of the grid [z]
+  private boolean streaming; // decode while reading
+  private Retention retention; // see applyRetention
+  private ProjectionTable projectionTable; // see getProjectionTable
+  // the lookup of getProjectionTable found no table for my projection
+  private boolean noProjectionTable;
+  private Calibration calibration; // see calibrateProjection
+  private boolean calibrated; // my projection is set - see region
 
   private int Px; // plain data width
   private int Py; // plain data height
 
   private int dataLength; // length of binary section in bytes
+  // length of the header including the 0x03 terminator - kept when the
+  // header is dropped - see Retention
+  int headerLength;
 
   private int precision; // multiplicator 10^precision for each raw value
   private double precisionFactor;
   float[] level; // maps data value to corresponding index value in runlength
                  // based formats
+  float[] singleByteTable; // maps each byte to its value in single byte
+                           // based formats
+  float[] littleEndianTable; // maps each two byte tuple to its value in
+                             // little endian based formats
 
 
   public byte bytes[];
@@ -215,6 +254,101 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
     Product = product;
   }
 
+  public Grid getGrid() {
+    return grid;
+  }
+
+  public void setGrid(Grid grid) {
+    this.grid = grid;
+    this.layers = null; // see Data.arrangeData
+    this.PlainData = grid instanceof PlainGrid ? ((PlainGrid) grid).getRows()
+        : null;
+  }
+
+  /**
+   * get the data layers as arranged by Data.arrangeData
+   * 
+   * @return - the layers or null if the data has not been arranged
+   */
+  public Grid[] getLayers() {
+    return layers;
+  }
+
+  public void setLayers(Grid[] layers) {
+    this.layers = layers;
+  }
+
+  /**
+   * get the data layer z - the grid itself if the data has not been arranged
+   * 
+   * @param z
+   * @return - the layer or null if there is no such layer
+   */
+  public Grid getLayer(int z) {
+    if (layers == null)
+      return z == 0 ? grid : null;
+    return z >= 0 && z < layers.length ? layers[z] : null;
+  }
+
+  /**
+   * get the number of data layers
+   * 
+   * @return - the number of layers - 1 if the data has not been arranged
+   */
+  public int getDz() {
+    return layers == null ? 1 : layers.length;
+  }
+
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  public void setStreaming(boolean streaming) {
+    this.streaming = streaming;
+  }
+
+  public Retention getRetention() {
+    return retention;
+  }
+
+  public void setRetention(Retention retention) {
+    this.retention = retention;
+  }
+
+  public RadolanContext getContext() {
+    return context;
+  }
+
+  public GridFactory getGridFactory() {
+    return gridFactory;
+  }
+
+  public void setGridFactory(GridFactory gridFactory) {
+    this.gridFactory = gridFactory;
+  }
+
+  /**
+   * get the plain data as [y][x] array - the rows are only available without
+   * copying if my grid has been created by GridFactory.PLAIN as done by the
+   * url and input stream constructors - other grids e.g. GridFactory.HEAP
+   * keep the values in one contiguous array, use getGrid for them
+   * 
+   * @return - the plain data or null if my grid is not a PlainGrid
+   */
+  public float[][] getPlainData() {
+    return PlainData;
+  }
+
+  /**
+   * set the plain data from the given [y][x] array - the rows are used as my
+   * grid without copying
+   * 
+   * @param plainData
+   */
+  public void setPlainData(float[][] plainData) {
+    setGrid(new PlainGrid(plainData));
+  }
+
   public Statistics getStatistics() {
     return statistics;
   }
@@ -250,9 +384,22 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
   }
 
   /**
-   * default constructor
+   * default constructor - configured by the current static configuration
    */
   public Composite() {
+    this(RadolanContext.defaults());
+  }
+
+  /**
+   * construct me with the given configuration
+   * 
+   * @param context
+   */
+  public Composite(RadolanContext context) {
+    this.context = context;
+    this.gridFactory = context.getGridFactory();
+    this.streaming = context.isStreaming();
+    this.retention = context.getRetention();
     setStatistics(new Statistics());
   }
 
@@ -278,31 +425,162 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
    * @throws Throwable
    */
   public Composite(String url) throws Throwable {
-    this();
-    if (ProjectionImpl.debug)
+    this(url, RadolanContext.defaults());
+  }
+
+  /**
+   * construct me from an url and store the data in grids created by the
+   * given factory
+   * 
+   * @param url
+   * @param gridFactory
+   * @throws Throwable
+   */
+  public Composite(String url, GridFactory gridFactory) throws Throwable {
+    this(url, RadolanContext.builder().gridFactory(gridFactory).build());
+  }
+
+  /**
+   * construct me from an url with the given configuration
+   * 
+   * @param url
+   * @param context
+   * @throws Throwable
+   */
+  public Composite(String url, RadolanContext context) throws Throwable {
+    this(context);
+    if (context.isDebug())
       ProjectionImpl.LOGGER.log(Level.INFO, "getting composite for url " + url);
-    this.url = CachedUrl.checkCache(url,useCache);
-    InputStream inputStream = null;
+    load(url);
+  }
+
+  /**
+   * construct me from an input stream
+   * 
+   * @param inputstream
+   * @throws Throwable
+   */
+  public Composite(InputStream inputstream) throws Throwable {
+    this(inputstream, RadolanContext.defaults());
+  }
+
+  /**
+   * construct me from an input stream and store the data in grids created by
+   * the given factory
+   * 
+   * @param inputstream
+   * @param gridFactory
+   * @throws Throwable
+   */
+  public Composite(InputStream inputstream, GridFactory gridFactory)
+      throws Throwable {
+    this(inputstream,
+        RadolanContext.builder().gridFactory(gridFactory).build());
+  }
+
+  /**
+   * construct me from an input stream with the given configuration
+   * 
+   * @param inputstream
+   * @param context
+   * @throws Throwable
+   */
+  public Composite(InputStream inputstream, RadolanContext context)
+      throws Throwable {
+    this(context);
     try {
-      inputStream = new URL(url).openStream();
+      if (context.isDebug())
+        ProjectionImpl.LOGGER.log(Level.INFO, "getting composite for url " + url);
+      load(inputstream);
+    } finally {
+      if (inputstream != null) inputstream.close();
+    }
+  }
+
+  /**
+   * load me from the given input stream - either by reading all bytes and
+   * then decoding or by decoding while reading if streaming is set
+   * 
+   * @param inputStream
+   * @throws Throwable
+   */
+  public void load(InputStream inputStream) throws Throwable {
+    if (streaming) {
+      readStream(inputStream);
+      initData();
+    } else {
       read(inputStream);
       init();
-    } finally {
-      if (inputStream != null) inputStream.close();
     }
+    applyRetention();
   }
 
-  public Composite(InputStream inputstream) throws Throwable {
-    this();
+  /**
+   * load me from the given url - if mapping is active and the url is a local
+   * file e.g. from the cache it is memory mapped and always decoded while
+   * reading so that the raw bytes are never copied to the heap - the bytes
+   * are not kept whatever my retention is
+   * 
+   * @param url
+   * @throws Throwable
+   */
+  public void load(String url) throws Throwable {
+    this.url = CachedUrl.checkCache(url, context.isUseCache(),
+        context.getCacheRootPath());
+    MappedByteBuffer buffer = context.isMapping() ? CachedUrl.map(this.url)
+        : null;
+    if (buffer != null) {
+      // decode from the page cache - reading all bytes would copy the file
+      readStream(new ByteBufferInputStream(buffer));
+      initData();
+      applyRetention();
+      return;
+    }
+    InputStream inputStream = null;
     try {
-      if (ProjectionImpl.debug)
-        ProjectionImpl.LOGGER.log(Level.INFO, "getting composite for url " + url);
-      read(inputstream);
-      init();
+      inputStream = new URL(this.url).openStream();
+      load(inputStream);
     } finally {
-      if (inputstream != null) inputstream.close();
+      if (inputStream != null) inputStream.close();
     }
   }
+
+  /**
+   * reset the data of a previous load so that I can be loaded again - see
+   * CompositeParser
+   */
+  void reset() {
+    bytes = null;
+    header = null;
+    headerLength = 0;
+    error = null;
+    level = null;
+    precision = 0;
+    precisionFactor = 0;
+    setGrid(null);
+    statistics.clear();
+    // calibrateProjection starts from the uncalibrated projection
+    calibration = null;
+    calibrated = false;
+    noProjectionTable = false;
+    setProjection(false);
+    setBounds(null);
+    setOffSetX(0);
+    setOffSetY(0);
+    setResX(0);
+    setResY(0);
+  }
+
+  /**
+   * drop the raw bytes and the header as requested by my retention - lazy
+   * grids keep their own reference to the bytes
+   */
+  public void applyRetention() {
+    if (retention != Retention.KEEP)
+      bytes = null;
+    if (retention == Retention.NONE)
+      header = null;
+  }
  
   /**
    * initialize me
@@ -311,16 +589,26 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
    */
   public void init() throws Throwable {
     parseData();
+    initData();
+  }
+
+  /**
+   * initialize me after the data has been parsed
+   * 
+   * @throws Throwable
+   */
+  protected void initData() throws Throwable {
     arrangeData();
-    if (ProjectionImpl.debug)
+    if (context.isDebug())
       ProjectionImpl.LOGGER.log(Level.INFO,
           String.format("parsed %7d grid values for %3d x %3d grid",
               statistics.getTotal(),
               this.getGridWidth(), this.getGridHeight()));
     calibrateProjection();
     // is there a callback installed?
-    if (postInit != null) {
-      postInit.accept(this);
+    Consumer<Composite> callback = context.getPostInit();
+    if (callback != null) {
+      callback.accept(this);
     }
   }
 
@@ -343,22 +631,32 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
    */
   public void read(InputStream inputStream) throws Exception {
     bytes = CachedUrl.readBytes(inputStream);
-    StringBuffer headerBuffer = new StringBuffer();
-    int pos = 0;
-    // read until 0x03 is found or we are way into the binary 2 x typical width
-    // 900 should suffice to terminate ...
-    while (bytes[pos] != 0x03 && pos <= 1800) {
-      headerBuffer.append((char) bytes[pos]);
-      pos++;
-    }
-    headerBuffer.append((char) bytes[pos]);
-    if (pos > 1799 || pos < 21) {
-      throw new Exception("header length " + pos + " out of valid range");
-    }
-    header = headerBuffer.toString();
+    int length = HeaderScanner.headerLength(bytes, bytes.length);
+    // the header is plain ASCII including the 0x03 terminator
+    header = new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+    headerLength = length;
     this.parseHeader();
   }
 
+  /**
+   * read the header from the given (potentially zipped) InputStream and
+   * decode the data while reading the rest of the stream - the bytes are not
+   * kept
+   * 
+   * @param inputStream
+   * @throws Throwable
+   */
+  public void readStream(InputStream inputStream) throws Throwable {
+    InputStream in = CachedUrl.unzipped(inputStream);
+    byte[] headerBytes = new byte[HeaderScanner.MAX_HEADER_LENGTH];
+    int length = HeaderScanner.readHeader(in, headerBytes);
+    bytes = null;
+    header = new String(headerBytes, 0, length, StandardCharsets.ISO_8859_1);
+    headerLength = length;
+    this.parseHeader();
+    Data.getInstance().parseData(this, in);
+  }
+
   public void parseHeader() throws Exception {
     Header.parseHeader(this);
   }
@@ -381,8 +679,25 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
     Data.getInstance().arrangeData(this);
   }
 
+  /**
+   * calibrate my projection with the calibration shared by all composites of
+   * my grid dimensions
+   */
   public void calibrateProjection() {
-    Translate.calibrateProjection(this);
+    calibration = Calibration.of(getGridWidth(), getGridHeight());
+    calibration.apply(this);
+    calibrated = true;
+    noProjectionTable = false;
+  }
+
+  /**
+   * get the calibration of my projection
+   * 
+   * @return - the calibration or null if I have not been calibrated or am a
+   *         region with an offset projection
+   */
+  public Calibration getCalibration() {
+    return calibration;
   }
 
   public Encoding identifyEncoding() {
@@ -394,7 +709,16 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
     return conv;
   }
 
-  
+
+  /**
+   * get the offset of the binary data section in the bytes
+   * 
+   * @return - the length of the header including the 0x03 terminator
+   */
+  public int getDataOffset() {
+    return headerLength;
+  }
+
   /**
    * get the byte at the given x,y position in the binary data
    * 
@@ -403,7 +727,7 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
    * @return - the byte
    */
   public byte getByte(int x, int y) {
-    int ofs = header.length();
+    int ofs = getDataOffset();
     int values = getPx() * getPy();
     int length = getDataLength() / values;
 /*
@@ -422,10 +746,23 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
    * @return - the value
    */
   public float getValue(int x, int y) {
+    return getValue(x, y, 0);
+  }
+
+  /**
+   * get the value at the given x,y coordinate of the layer z
+   * 
+   * @param x
+   * @param y
+   * @param z
+   * @return - the value
+   */
+  public float getValue(int x, int y, int z) {
+    Grid layer = getLayer(z);
     float value = Float.NaN;
-    if (y >= 0 && y < PlainData.length)
-      if (x >= 0 && x < PlainData[y].length)
-        value = PlainData[y][x];
+    if (layer != null && y >= 0 && y < layer.getHeight() && x >= 0
+        && x < layer.getWidth())
+      value = layer.getValue(x, y);
     return value;
   }
 
@@ -437,16 +774,12 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
    * @param value
    */
   public void setValue(int x, int y, float value) {
-    if (y >= 0 && y < PlainData.length)
-      if (x >= 0 && x < PlainData[y].length) {
-        /*float oldvalue = PlainData[y][x];
-        if (oldvalue != 0f && value == oldvalue) {
-          throw new RuntimeException(
-              "" + x + "," + y + " already set to " + oldvalue);
-        }*/
-        PlainData[y][x] = value;
-        getStatistics().add(value);
-      }
+    Grid layer = getLayer(0);
+    if (layer != null && y >= 0 && y < layer.getHeight() && x >= 0
+        && x < layer.getWidth()) {
+      layer.setValue(x, y, value);
+      getStatistics().add(value);
+    }
   }
 
   /**
@@ -455,9 +788,172 @@ public class Composite extends ProjectionImpl implements RadarImage, GeoProjecti
    * @return - the value
    */
   public float getValueAtCoord(DPoint coord) {
+    ProjectionTable table = getProjectionTable();
+    if (table != null) {
+      // no intermediate points
+      int index = table.gridIndex(coord.x, coord.y);
+      if (index < 0)
+        return Float.NaN;
+      return getValue(index % table.getWidth(), index / table.getWidth());
+    }
     DPoint gdp = translateLatLonToGrid(coord.x, coord.y);
     IPoint gp = new IPoint(gdp);
     float rain = getValue(gp.x, gp.y);
     return rain;
   }
+
+  /**
+   * get the region of my bottom most layer that covers the given coordinates
+   * - see region(int, int, int, int)
+   * 
+   * @param rect
+   *          - the north west and south east corner of the region
+   * @return - the region
+   * @throws Throwable
+   */
+  public Composite region(GeoRect rect) throws Throwable {
+    if (!calibrated)
+      calibrateProjection(); // e.g. only the header has been parsed
+    if (!isProjection()) {
+      throw new Exception(String.format(
+          "region - no projection for the %d x %d grid", getGridWidth(),
+          getGridHeight()));
+    }
+    DPoint topLeft = rect.getTopLeft();
+    DPoint bottomRight = rect.getBottomRight();
+    double north = Math.max(topLeft.x, bottomRight.x);
+    double south = Math.min(topLeft.x, bottomRight.x);
+    double west = Math.min(topLeft.y, bottomRight.y);
+    double east = Math.max(topLeft.y, bottomRight.y);
+    // meridians are straight lines and circles of latitude are arcs around
+    // the pole so the grid coordinates of the rectangle are extreme at its
+    // corners and where the circles of latitude cross the central meridian
+    double meridian = Math.max(west, Math.min(east, Translate.junctionEast));
+    double[] lats = { north, north, south, south, north, south };
+    double[] lons = { west, east, west, east, meridian, meridian };
+    double[] xs = new double[lats.length];
+    double[] ys = new double[lats.length];
+    translateLatLonToGrid(lats, lons, xs, ys);
+    double minX = xs[0], maxX = xs[0], minY = ys[0], maxY = ys[0];
+    for (int i = 1; i < xs.length; i++) {
+      minX = Math.min(minX, xs[i]);
+      maxX = Math.max(maxX, xs[i]);
+      minY = Math.min(minY, ys[i]);
+      maxY = Math.max(maxY, ys[i]);
+    }
+    // the cells nearest to the coordinates as in getValueAtCoord
+    long x0 = Math.max(0, Math.round(minX));
+    long y0 = Math.max(0, Math.round(minY));
+    long x1 = Math.min(getGridWidth() - 1, Math.round(maxX));
+    long y1 = Math.min(getGridHeight() - 1, Math.round(maxY));
+    if (x0 > x1 || y0 > y1 || Double.isNaN(minX + maxX + minY + maxY)) {
+      throw new Exception(String.format(
+          "region - %.3f,%.3f - %.3f,%.3f is outside of the %d x %d grid",
+          north, west, south, east, getGridWidth(), getGridHeight()));
+    }
+    return region((int) x0, (int) y0, (int) (x1 - x0 + 1),
+        (int) (y1 - y0 + 1));
+  }
+
+  /**
+   * get the given region of my bottom most layer as a new composite - only
+   * the rows and columns of the region are decoded from my bytes if they are
+   * retained and else copied from my grid. The projection of the region is
+   * offset so that coordinates translate to the same cells as in my grid.
+   * 
+   * @param x
+   *          - the first column
+   * @param y
+   *          - the first row
+   * @param width
+   * @param height
+   * @return - the region with a single layer
+   * @throws Throwable
+   */
+  public Composite region(int x, int y, int width, int height)
+      throws Throwable {
+    if (x < 0 || y < 0 || width <= 0 || height <= 0
+        || x + width > getGridWidth() || y + height > getGridHeight()) {
+      throw new Exception(String.format(
+          "region - %d,%d of %d x %d is outside of the %d x %d grid", x, y,
+          width, height, getGridWidth(), getGridHeight()));
+    }
+    if (!calibrated)
+      calibrateProjection();
+    Composite region = new Composite(context);
+    region.header = header;
+    region.headerLength = headerLength;
+    region.setProduct(getProduct());
+    region.setDataUnit(getDataUnit());
+    region.CaptureTime = CaptureTime;
+    region.setForecastTime(getForecastTime());
+    region.Interval = Interval;
+    region.setPrecision(getPrecision());
+    region.setPrecisionFactor(getPrecisionFactor());
+    region.level = level;
+    region.setDx(width);
+    region.setDy(height);
+    region.setPx(width);
+    region.setPy(height);
+    // the size of the region in my encoding
+    Encoding encoding = identifyEncoding();
+    if (encoding == Encoding.littleEndian)
+      region.setDataLength(width * height * 2);
+    else if (encoding == Encoding.singleByte)
+      region.setDataLength(width * height);
+    // offset projection - see Translate.translate - which must not be
+    // replaced by the calibration for the size of the region
+    region.calibrated = true;
+    region.setProjection(isProjection());
+    region.setResX(getResX());
+    region.setResY(getResY());
+    region.setOffSetX(getOffSetX() + x * getResX());
+    region.setOffSetY(getOffSetY() + y * getResY());
+    if (isProjection()) {
+      DPoint topLeft = region.translateGridToLatLon(new DPoint(0, 0));
+      DPoint bottomRight = region
+          .translateGridToLatLon(new DPoint(width, height));
+      region.setBounds(new CornerPoints(topLeft.x, topLeft.y, bottomRight.x,
+          bottomRight.y));
+    }
+    Grid regionGrid = gridFactory.createGrid(region);
+    if (regionGrid instanceof LazyGrid) // there are no bytes to decode from
+      regionGrid = GridFactory.HEAP.createGrid(region);
+    region.setGrid(regionGrid);
+    if (bytes != null && header != null) {
+      Data.getInstance().decodeRegion(this, x, y, region);
+    } else if (getLayer(0) != null) {
+      float[] row = new float[width];
+      for (int ry = 0; ry < height; ry++) {
+        for (int rx = 0; rx < width; rx++) {
+          row[rx] = getValue(x + rx, y + ry);
+        }
+        regionGrid.setRow(ry, row, 0);
+        if (context.isCollectStatistics())
+          region.getStatistics().add(row, 0, width);
+      }
+    } else {
+      throw new Exception("region - neither bytes nor data available");
+    }
+    region.arrangeData();
+    region.applyRetention();
+    return region;
+  }
+
+  /**
+   * get the projection table for my grid
+   * 
+   * @return - the table or null if my projection is not calibrated or is
+   *         the offset projection of a region - the lookup is only repeated
+   *         after my projection has been calibrated again
+   */
+  public ProjectionTable getProjectionTable() {
+    if (noProjectionTable)
+      return null;
+    if (projectionTable == null || !projectionTable.matches(this)) {
+      projectionTable = ProjectionTable.of(this);
+      noProjectionTable = projectionTable == null;
+    }
+    return projectionTable;
+  }
 }
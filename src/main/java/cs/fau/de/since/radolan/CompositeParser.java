@@ -0,0 +1,358 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.geo.GeoRect;
+import com.bitplan.radolan.Grid;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * reusable parser that loads one composite after the other into the same
+ * buffers - the raw bytes, the unzip buffers, the header scanner and the
+ * composite itself are recycled so that a worker thread can parse many files
+ * with hardly any allocation.
+ * 
+ * A parser is not thread safe - use one parser per thread. The composite
+ * returned by parse is only valid until the next call of parse. Close the
+ * parser to release the native memory of its inflater.
+ * 
+ * @author wf
+ *
+ */
+public class CompositeParser implements AutoCloseable {
+  private final Composite composite;
+  private final HeaderScanner scanner = new HeaderScanner();
+  private final Inflater inflater = new Inflater(true); // raw deflate
+  private final CRC32 crc = new CRC32();
+  private byte[] raw = new byte[1 << 16]; // the bytes as read
+  private byte[] unzipped = new byte[1 << 16]; // the bytes after unzipping
+
+  /**
+   * create a parser with the current static configuration
+   */
+  public CompositeParser() {
+    this(RadolanContext.defaults());
+  }
+
+  /**
+   * create a parser with the given configuration - streaming is not used
+   * since the bytes are read into the recycled buffer anyway
+   * 
+   * @param context
+   */
+  public CompositeParser(RadolanContext context) {
+    composite = new Composite(context);
+  }
+
+  /**
+   * release the native memory of the inflater - I can not be used any more
+   * afterwards
+   */
+  @Override
+  public void close() {
+    inflater.end();
+  }
+
+  /**
+   * parse the given (potentially zipped) file
+   * 
+   * @param file
+   * @param grid
+   *          - the grid to decode into - null to create the grid with the
+   *          grid factory of the context
+   * @return - the composite which is valid until the next parse
+   * @throws Throwable
+   */
+  public Composite parse(File file, Grid grid) throws Throwable {
+    try (InputStream in = new FileInputStream(file)) {
+      return parse(in, grid);
+    }
+  }
+
+  /**
+   * parse the given (potentially zipped) input stream into a grid created by
+   * the grid factory of the context
+   * 
+   * @param inputStream
+   * @return - the composite which is valid until the next parse
+   * @throws Throwable
+   */
+  public Composite parse(InputStream inputStream) throws Throwable {
+    return parse(inputStream, null);
+  }
+
+  /**
+   * parse the given (potentially zipped) input stream - the stream is read
+   * completely but not closed
+   * 
+   * @param inputStream
+   * @param grid
+   *          - the grid to decode into - null to create the grid with the
+   *          grid factory of the context
+   * @return - the composite which is valid until the next parse
+   * @throws Throwable
+   */
+  public Composite parse(InputStream inputStream, Grid grid)
+      throws Throwable {
+    Composite c = readHeader(inputStream);
+    GridFactory gridFactory = c.getContext().getGridFactory();
+    // check the grid before the data is decoded and the callbacks are called
+    c.setGridFactory(x -> checkGrid(x,
+        grid == null ? gridFactory.createGrid(x) : grid));
+    c.init();
+    c.applyRetention();
+    return c;
+  }
+
+  /**
+   * parse only the region of the given (potentially zipped) input stream
+   * that covers the given coordinates - see Composite.region
+   * 
+   * @param inputStream
+   * @param rect
+   *          - the north west and south east corner of the region
+   * @return - the region which stays valid after the next parse
+   * @throws Throwable
+   */
+  public Composite parseRegion(InputStream inputStream, GeoRect rect)
+      throws Throwable {
+    return readHeader(inputStream).region(rect);
+  }
+
+  /**
+   * parse only the given region of the grid of the given (potentially
+   * zipped) input stream - see Composite.region
+   * 
+   * @param inputStream
+   * @param x
+   *          - the first column
+   * @param y
+   *          - the first row
+   * @param width
+   * @param height
+   * @return - the region which stays valid after the next parse
+   * @throws Throwable
+   */
+  public Composite parseRegion(InputStream inputStream, int x, int y,
+      int width, int height) throws Throwable {
+    return readHeader(inputStream).region(x, y, width, height);
+  }
+
+  /**
+   * read the given (potentially zipped) input stream completely and parse
+   * the header only - the data section is not decoded and no grid is created
+   * 
+   * @param inputStream
+   * @return - the composite with the header data and the recycled bytes
+   *         which is valid until the next parse
+   * @throws Exception
+   */
+  Composite readHeader(InputStream inputStream) throws Exception {
+    int length = readFully(inputStream);
+    byte[] bytes = raw;
+    // https://tools.ietf.org/html/rfc1952
+    // check for gzip header
+    if (isGzipMember(0, length)) {
+      length = gunzip(length);
+      bytes = unzipped;
+    }
+    return readHeader(bytes, length);
+  }
+
+  /**
+   * parse the header of the composite in the given bytes
+   * 
+   * @param bytes
+   *          - the bytes which are used as the bytes of the composite
+   * @param length
+   *          - the number of valid bytes
+   * @return - the composite which is valid until the next parse
+   * @throws Exception
+   */
+  private Composite readHeader(byte[] bytes, int length) throws Exception {
+    Composite c = composite;
+    c.reset();
+    int headerLength = HeaderScanner.headerLength(bytes, length);
+    c.bytes = bytes;
+    c.header = new String(bytes, 0, headerLength,
+        StandardCharsets.ISO_8859_1);
+    c.headerLength = headerLength;
+    scanner.scan(bytes, headerLength);
+    scanner.apply(c);
+    // the buffer is larger than the content - stale bytes must not be decoded
+    if (headerLength + c.getDataLength() > length) {
+      throw new Exception(String.format(
+          "data section of %d bytes too short for %d bytes",
+          length - headerLength, c.getDataLength()));
+    }
+    return c;
+  }
+
+  /**
+   * check that the given grid fits the given composite
+   * 
+   * @param c
+   * @param grid
+   * @return - the grid
+   * @throws Exception
+   *           - if the dimensions do not fit or the grid is lazy
+   */
+  private static Grid checkGrid(Composite c, Grid grid) throws Exception {
+    if (grid instanceof LazyGrid) {
+      // the recycled bytes would be decoded after the next parse
+      throw new Exception("lazy grids can not be used with recycled buffers");
+    }
+    if (grid.getWidth() != c.getPx() || grid.getHeight() != c.getPy()) {
+      throw new Exception(String.format(
+          "grid of %d x %d does not fit composite of %d x %d",
+          grid.getWidth(), grid.getHeight(), c.getPx(), c.getPy()));
+    }
+    return grid;
+  }
+
+  /**
+   * read the given input stream completely into the raw buffer
+   * 
+   * @param in
+   * @return - the number of bytes read
+   * @throws Exception
+   */
+  private int readFully(InputStream in) throws Exception {
+    int length = 0;
+    int read;
+    while ((read = in.read(raw, length, raw.length - length)) != -1) {
+      length += read;
+      if (length == raw.length)
+        raw = Arrays.copyOf(raw, raw.length * 2);
+    }
+    return length;
+  }
+
+  /**
+   * unzip the gzip members in the raw buffer into the unzipped buffer with
+   * the recycled inflater - concatenated members are unzipped one after the
+   * other as GZIPInputStream does, trailing bytes which do not start another
+   * member are ignored
+   * 
+   * @param length
+   *          - the number of bytes in the raw buffer
+   * @return - the number of unzipped bytes
+   * @throws Exception
+   */
+  private int gunzip(int length) throws Exception {
+    int n = 0;
+    int member = 0;
+    do {
+      int start = n; // of the unzipped data of this member
+      int pos = skipGzipHeader(member, length);
+      inflater.reset();
+      inflater.setInput(raw, pos, length - pos);
+      try {
+        while (!inflater.finished()) {
+          if (n == unzipped.length)
+            unzipped = Arrays.copyOf(unzipped, unzipped.length * 2);
+          int inflated = inflater.inflate(unzipped, n, unzipped.length - n);
+          if (inflated == 0
+              && (inflater.needsInput() || inflater.needsDictionary()))
+            throw new ZipException("Unexpected end of ZLIB input stream");
+          n += inflated;
+        }
+      } catch (DataFormatException e) {
+        throw new ZipException(e.getMessage());
+      }
+      // the trailer holds the CRC32 and the size of the unzipped data
+      int trailer = length - inflater.getRemaining();
+      crc.reset();
+      crc.update(unzipped, start, n - start);
+      if (trailer + 8 > length || readInt(trailer) != (int) crc.getValue()
+          || readInt(trailer + 4) != n - start) {
+        throw new ZipException("Corrupt GZIP trailer");
+      }
+      member = trailer + 8;
+    } while (isGzipMember(member, length));
+    return n;
+  }
+
+  /**
+   * check whether a gzip member starts at the given position of the raw
+   * buffer
+   * 
+   * @param pos
+   * @param length
+   *          - the number of bytes in the raw buffer
+   * @return - true if there is a gzip magic number at pos
+   */
+  private boolean isGzipMember(int pos, int length) {
+    return pos + 2 <= length && (raw[pos] & 0xFF) == 0x1f
+        && (raw[pos + 1] & 0xFF) == 0x8b;
+  }
+
+  /**
+   * skip the gzip header of the member at the given position of the raw
+   * buffer
+   * 
+   * @param member
+   *          - the position of the member
+   * @param length
+   * @return - the position of the deflated data
+   * @throws ZipException
+   */
+  private int skipGzipHeader(int member, int length) throws ZipException {
+    if (length - member < 18 || raw[member + 2] != 8) // CM 8 = deflate
+      throw new ZipException("Not in GZIP format");
+    int flags = raw[member + 3] & 0xFF;
+    int pos = member + 10;
+    if ((flags & 4) != 0) // FEXTRA
+      pos += 2 + ((raw[pos] & 0xFF) | (raw[pos + 1] & 0xFF) << 8);
+    if ((flags & 8) != 0) // FNAME
+      pos = skipZeroTerminated(pos, length);
+    if ((flags & 16) != 0) // FCOMMENT
+      pos = skipZeroTerminated(pos, length);
+    if ((flags & 2) != 0) // FHCRC
+      pos += 2;
+    if (pos >= length)
+      throw new ZipException("Not in GZIP format");
+    return pos;
+  }
+
+  private int skipZeroTerminated(int pos, int length) {
+    while (pos < length && raw[pos] != 0)
+      pos++;
+    return pos + 1;
+  }
+
+  private int readInt(int pos) {
+    return (raw[pos] & 0xFF) | (raw[pos + 1] & 0xFF) << 8
+        | (raw[pos + 2] & 0xFF) << 16 | (raw[pos + 3] & 0xFF) << 24;
+  }
+}
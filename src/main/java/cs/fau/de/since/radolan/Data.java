@@ -23,8 +23,21 @@
  */
 package cs.fau.de.since.radolan;
 
+import com.bitplan.radolan.FloatGrid;
+import com.bitplan.radolan.Grid;
+import com.bitplan.radolan.GridView;
+import com.bitplan.radolan.PlainGrid;
+import com.bitplan.radolan.QuantizedGrid;
+import com.bitplan.radolan.Statistics;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.function.Consumer;
 
 /**
@@ -36,6 +49,28 @@ public class Data {
     runlength, littleEndian, singleByte, unknown
   };
 
+  /**
+   * decoder for the fixed length rows of an encoding
+   */
+  @FunctionalInterface
+  public interface RowDecoder {
+    /**
+     * decode width values from src starting at srcPos to dst starting at
+     * dstPos - implementations must not modify the composite so that rows
+     * can be decoded concurrently
+     * 
+     * @param c
+     *          - the composite the values belong to
+     * @param src
+     * @param srcPos
+     * @param dst
+     * @param dstPos
+     * @param width
+     */
+    void decode(Composite c, byte[] src, int srcPos, float[] dst, int dstPos,
+        int width);
+  }
+
   Map<Encoding, Consumer<Composite>> parseMap = new HashMap<Encoding, Consumer<Composite>>();
 
   public Data() {
@@ -70,10 +105,7 @@ public class Data {
     }
 
     // create Data fields
-    c.PlainData = new float[c.getPy()][c.getPx()];
-    for (int i = 0; i < c.PlainData.length; i++) {
-      c.PlainData[i] = new float[c.getPx()];
-    }
+    c.setGrid(c.getGridFactory().createGrid(c));
     Encoding encoding = identifyEncoding(c);
     Consumer<Composite> parser = parseMap.get(encoding);
     if (parser != null) {
@@ -84,10 +116,499 @@ public class Data {
       c.error = new Exception("no parser for encoding " + encoding);
   }
 
+  // parseData parses the composite data from the given stream which is
+  // positioned after the header and writes the related fields.
+  // The data is decoded while it is read - the raw bytes are not kept.
+  // This method requires header data to be already written.
+  public void parseData(Composite c, InputStream in) throws Throwable {
+    if (c.getPx() == 0 || c.getPy() == 0) {
+      c.error = new Exception("parseData - parsed header data required");
+      return;
+    }
+
+    // create Data fields
+    c.setGrid(c.getGridFactory().createGrid(c));
+    Encoding encoding = identifyEncoding(c);
+    switch (encoding) {
+    case littleEndian:
+      decodeRows(c, "decodeLittleEndian", 2, LittleEndian.rowDecoder(c), in);
+      break;
+    case singleByte:
+      decodeRows(c, "decodeSingleByte", 1, SingleByte.rowDecoder(c), in);
+      break;
+    case runlength:
+      RunLength.parseRunlength(c, in);
+      break;
+    default:
+      parseUnknown(c);
+    }
+    if (c.error != null)
+      throw c.error;
+  }
+
+  // decodeValues decodes only the values at the given indices y * Dx + x of
+  // the bottom most layer from the bytes of the composite - no grid is
+  // created. Indices outside of the layer e.g. -1 give NaN. Ascending indices
+  // are read in one pass over the data section.
+  // This method requires header data to be already written.
+  public void decodeValues(Composite c, int[] indices, float[] values)
+      throws Exception {
+    if (c.getDx() == 0 || c.getDy() == 0 || c.getPy() < c.getDy()) {
+      throw new Exception("decodeValues - parsed header data required");
+    }
+    if (values.length < indices.length) {
+      throw new Exception(String.format(
+          "decodeValues - %d values can not hold %d indices", values.length,
+          indices.length));
+    }
+    // the first row of the bottom most layer - see arrangeData
+    int layerRow = c.getPy() % c.getDy() == 0 ? 0 : c.getPy() - c.getDy();
+    Encoding encoding = identifyEncoding(c);
+    switch (encoding) {
+    case littleEndian:
+      decodeValues(c, "decodeLittleEndian", 2, LittleEndian.rowDecoder(c),
+          layerRow, indices, values);
+      break;
+    case singleByte:
+      decodeValues(c, "decodeSingleByte", 1, SingleByte.rowDecoder(c),
+          layerRow, indices, values);
+      break;
+    case runlength:
+      RunLength.decodeValues(c, layerRow, indices, values);
+      break;
+    default:
+      parseUnknown(c);
+    }
+    // the decoders only record Exceptions as error
+    if (c.error instanceof Error)
+      throw (Error) c.error;
+    if (c.error instanceof Exception)
+      throw (Exception) c.error;
+    if (c.error != null)
+      throw new Exception(c.error);
+  }
+
+  /**
+   * decode the values at the given indices of the fixed length encoded
+   * composite with the given decoder - the rows are stored vertically flipped
+   * 
+   * @param c
+   *          - the composite
+   * @param name
+   *          - the name of the encoding for error messages
+   * @param bytesPerValue
+   *          - the number of bytes per value of the encoding
+   * @param decoder
+   *          - the decoder for a row which is used for single values
+   * @param layerRow
+   *          - the first row of the layer the indices refer to
+   * @param indices
+   * @param values
+   */
+  void decodeValues(Composite c, String name, int bytesPerValue,
+      RowDecoder decoder, int layerRow, int[] indices, float[] values) {
+    int width = c.getDx();
+    int size = width * c.getDy();
+    int last = c.getPy() - 1;
+    int stride = width * bytesPerValue; // bytes per row
+    int pos = c.getDataOffset();
+    if (pos + c.getPy() * stride > c.bytes.length) {
+      c.error = new Exception(String.format(
+          "%s data section of %d bytes too short for %d rows of %d bytes",
+          name, c.bytes.length - pos, c.getPy(), stride));
+      return;
+    }
+    for (int i = 0; i < indices.length; i++) {
+      int index = indices[i];
+      if (index < 0 || index >= size) {
+        values[i] = Float.NaN;
+        continue;
+      }
+      int row = last - (layerRow + index / width); // vertically flipped
+      decoder.decode(c, c.bytes,
+          pos + row * stride + (index % width) * bytesPerValue, values, i, 1);
+    }
+  }
+
+  // decodeRegion decodes only the rows and columns of the bottom most layer
+  // starting at x,y from the bytes of the composite and writes them to the
+  // previously created grid of the region which has the size of the region.
+  // This method requires header data to be already written.
+  public void decodeRegion(Composite c, int x, int y, Composite region)
+      throws Throwable {
+    if (c.getDx() == 0 || c.getDy() == 0 || c.getPy() < c.getDy()) {
+      throw new Exception("decodeRegion - parsed header data required");
+    }
+    Grid grid = region.getGrid();
+    if (x < 0 || y < 0 || x + grid.getWidth() > c.getDx()
+        || y + grid.getHeight() > c.getDy()) {
+      throw new Exception(String.format(
+          "decodeRegion - region %d,%d of %d x %d is outside of the %d x %d grid",
+          x, y, grid.getWidth(), grid.getHeight(), c.getDx(), c.getDy()));
+    }
+    // the first row of the bottom most layer - see arrangeData
+    int layerRow = c.getPy() % c.getDy() == 0 ? 0 : c.getPy() - c.getDy();
+    Statistics statistics = c.getContext().isCollectStatistics()
+        ? region.getStatistics() : null;
+    Encoding encoding = identifyEncoding(c);
+    switch (encoding) {
+    case littleEndian:
+      decodeRegion(c, "decodeLittleEndian", 2, LittleEndian.rowDecoder(c),
+          layerRow + y, x, grid, statistics);
+      break;
+    case singleByte:
+      decodeRegion(c, "decodeSingleByte", 1, SingleByte.rowDecoder(c),
+          layerRow + y, x, grid, statistics);
+      break;
+    case runlength:
+      RunLength.decodeRegion(c, layerRow + y, x, grid, statistics);
+      break;
+    default:
+      parseUnknown(c);
+    }
+    if (c.error != null)
+      throw c.error;
+  }
+
+  /**
+   * decode the columns of the rows of the fixed length encoded composite
+   * starting at fromRow and x to the given grid - the rows are stored
+   * vertically flipped
+   * 
+   * @param c
+   *          - the composite
+   * @param name
+   *          - the name of the encoding for error messages
+   * @param bytesPerValue
+   *          - the number of bytes per value of the encoding
+   * @param decoder
+   *          - the decoder for a row
+   * @param fromRow
+   *          - the first row of the plain data to decode
+   * @param x
+   *          - the first column to decode
+   * @param grid
+   *          - the grid to write to - its size is the size of the region
+   * @param statistics
+   *          - the statistics to add the decoded values to or null
+   */
+  void decodeRegion(Composite c, String name, int bytesPerValue,
+      RowDecoder decoder, int fromRow, int x, Grid grid,
+      Statistics statistics) {
+    int width = grid.getWidth();
+    int last = c.getPy() - 1;
+    int stride = c.getDx() * bytesPerValue; // bytes per row
+    int pos = c.getDataOffset() + x * bytesPerValue;
+    if (c.getDataOffset() + c.getPy() * stride > c.bytes.length) {
+      c.error = new Exception(String.format(
+          "%s data section of %d bytes too short for %d rows of %d bytes",
+          name, c.bytes.length - c.getDataOffset(), c.getPy(), stride));
+      return;
+    }
+    float[] row = new float[width];
+    for (int y = 0; y < grid.getHeight(); y++) {
+      // read vertically flipped
+      int srcPos = pos + (last - fromRow - y) * stride;
+      float[] dst = rowArray(grid, y);
+      if (dst == null) {
+        writeRow(c, grid, y, decoder, bytesPerValue, c.bytes, srcPos, row,
+            statistics);
+        continue;
+      }
+      int offset = rowOffset(grid, y);
+      decoder.decode(c, c.bytes, srcPos, dst, offset, width);
+      if (statistics != null)
+        statistics.add(dst, offset, width);
+    }
+  }
+
+  /**
+   * get the array that holds the given row of the given grid so that the
+   * row can be decoded directly into it - see rowOffset
+   * 
+   * @param grid
+   * @param y
+   * @return - the backing array of a FloatGrid, the row of a PlainGrid or
+   *         null if the row needs to be written with writeRow
+   */
+  static float[] rowArray(Grid grid, int y) {
+    if (grid instanceof FloatGrid)
+      return ((FloatGrid) grid).getData();
+    if (grid instanceof PlainGrid)
+      return ((PlainGrid) grid).getRows()[y];
+    return null;
+  }
+
+  /**
+   * get the offset of the given row in its array - see rowArray
+   * 
+   * @param grid
+   * @param y
+   * @return - the offset of the first value of the row
+   */
+  static int rowOffset(Grid grid, int y) {
+    return grid instanceof FloatGrid ? ((FloatGrid) grid).getOffset(y) : 0;
+  }
+
+  /**
+   * write a row which is not decoded directly into the storage of the grid
+   * - see rowArray - to the given grid - a QuantizedGrid keeps the raw values of the
+   * source so they are not decoded and rounded to raw values again, other
+   * grids get the row decoded by the decoder
+   * 
+   * @param c
+   *          - the composite
+   * @param grid
+   *          - the grid to write to
+   * @param y
+   *          - the row of the grid
+   * @param decoder
+   *          - the decoder for a row
+   * @param bytesPerValue
+   *          - the number of bytes per value of the encoding
+   * @param src
+   *          - the source bytes
+   * @param srcPos
+   *          - the position of the row in src
+   * @param row
+   *          - buffer for the decoded row
+   * @param statistics
+   *          - the statistics to add the decoded values to or null
+   */
+  void writeRow(Composite c, Grid grid, int y, RowDecoder decoder,
+      int bytesPerValue, byte[] src, int srcPos, float[] row,
+      Statistics statistics) {
+    int width = grid.getWidth();
+    boolean quantized = grid instanceof QuantizedGrid;
+    if (quantized) {
+      QuantizedGrid quantizedGrid = (QuantizedGrid) grid;
+      if (bytesPerValue == 1) {
+        quantizedGrid.setRawRow(y, src, srcPos);
+      } else {
+        for (int x = 0; x < width; x++) {
+          quantizedGrid.setRaw(x, y, LittleEndian.raw(src[srcPos + 2 * x],
+              src[srcPos + 2 * x + 1]));
+        }
+      }
+      if (statistics == null)
+        return;
+    }
+    decoder.decode(c, src, srcPos, row, 0, width);
+    if (statistics != null)
+      statistics.add(row, 0, width);
+    if (!quantized)
+      grid.setRow(y, row, 0);
+  }
+
+  /**
+   * decode all rows of the fixed length encoded composite from the given
+   * stream with the given decoder and write them vertically flipped to the
+   * grid of the composite - only a single row of bytes is buffered
+   * 
+   * @param c
+   *          - the composite
+   * @param name
+   *          - the name of the encoding for error messages
+   * @param bytesPerValue
+   *          - the number of bytes per value of the encoding
+   * @param decoder
+   *          - the decoder for a row
+   * @param in
+   *          - the stream positioned at the start of the data section
+   * @throws IOException
+   */
+  public void decodeRows(Composite c, String name, int bytesPerValue,
+      RowDecoder decoder, InputStream in) throws IOException {
+    Grid grid = c.getGrid();
+    int rows = grid.getHeight();
+    int width = grid.getWidth();
+    int last = rows - 1;
+    int stride = c.getDx() * bytesPerValue; // bytes per row
+    if (width * bytesPerValue != stride) {
+      c.error = new Exception(String.format(
+          "%s destination size %d and source size %d are not even or equal",
+          name, width, stride));
+      return;
+    }
+    Statistics statistics = c.getContext().isCollectStatistics()
+        ? c.getStatistics() : null;
+    DataInputStream dataIn = new DataInputStream(in);
+    byte[] line = new byte[stride];
+    float[] row = new float[width];
+    for (int y = 0; y < rows; y++) {
+      try {
+        dataIn.readFully(line);
+      } catch (EOFException eof) {
+        c.error = new Exception(String.format(
+            "%s data section too short for %d rows of %d bytes", name, rows,
+            stride));
+        return;
+      }
+      // write vertically flipped
+      float[] dst = rowArray(grid, last - y);
+      if (dst == null) {
+        writeRow(c, grid, last - y, decoder, bytesPerValue, line, 0, row,
+            statistics);
+        continue;
+      }
+      int offset = rowOffset(grid, last - y);
+      decoder.decode(c, line, 0, dst, offset, width);
+      if (statistics != null)
+        statistics.add(dst, offset, width);
+    }
+  }
+
+  /**
+   * decode all rows of the fixed length encoded composite with the given
+   * decoder and write them vertically flipped to the grid of the composite
+   * 
+   * @param c
+   *          - the composite
+   * @param name
+   *          - the name of the encoding for error messages
+   * @param bytesPerValue
+   *          - the number of bytes per value of the encoding
+   * @param decoder
+   *          - the decoder for a row
+   */
+  public void decodeRows(Composite c, String name, int bytesPerValue,
+      RowDecoder decoder) {
+    Grid grid = c.getGrid();
+    int rows = grid.getHeight();
+    int width = grid.getWidth();
+    int stride = c.getDx() * bytesPerValue; // bytes per row
+    int pos = c.getDataOffset();
+    if (width * bytesPerValue != stride) {
+      c.error = new Exception(String.format(
+          "%s destination size %d and source size %d are not even or equal",
+          name, width, stride));
+      return;
+    }
+    if (pos + rows * stride > c.bytes.length) {
+      c.error = new Exception(String.format(
+          "%s data section of %d bytes too short for %d rows of %d bytes",
+          name, c.bytes.length - pos, rows, stride));
+      return;
+    }
+    if (grid instanceof LazyGrid) {
+      // rows are decoded when they are first accessed
+      return;
+    }
+    RadolanContext context = c.getContext();
+    ForkJoinPool decodePool = context.getDecodePool();
+    if (decodePool == null || rows <= context.getRowsPerTask()) {
+      decodeRowRange(c, grid, stride, decoder, 0, rows,
+          context.isCollectStatistics() ? c.getStatistics() : null);
+    } else {
+      Statistics statistics = decodePool
+          .invoke(new DecodeTask(c, grid, stride, decoder, 0, rows));
+      c.getStatistics().merge(statistics);
+    }
+  }
+
+  /**
+   * decode the rows from fromRow (inclusive) to toRow (exclusive) of the
+   * data section and write them vertically flipped to the given grid
+   * 
+   * @param c
+   *          - the composite
+   * @param grid
+   *          - the grid to write to
+   * @param stride
+   *          - the number of bytes per row
+   * @param decoder
+   *          - the decoder for a row
+   * @param fromRow
+   * @param toRow
+   * @param statistics
+   *          - the statistics to add the decoded values to or null
+   */
+  void decodeRowRange(Composite c, Grid grid, int stride, RowDecoder decoder,
+      int fromRow, int toRow, Statistics statistics) {
+    int width = grid.getWidth();
+    int last = grid.getHeight() - 1;
+    int pos = c.getDataOffset() + fromRow * stride;
+    float[] row = null; // buffer for rows that are not decoded directly
+    int bytesPerValue = stride / width;
+    for (int y = fromRow; y < toRow; y++) {
+      // write vertically flipped
+      float[] dst = rowArray(grid, last - y);
+      if (dst != null) {
+        // decode directly into the storage of the grid
+        int offset = rowOffset(grid, last - y);
+        decoder.decode(c, c.bytes, pos, dst, offset, width);
+        if (statistics != null)
+          statistics.add(dst, offset, width);
+      } else {
+        if (row == null)
+          row = new float[width];
+        writeRow(c, grid, last - y, decoder, bytesPerValue, c.bytes, pos, row,
+            statistics);
+      }
+      pos += stride;
+    }
+  }
+
+  /**
+   * decodes a range of rows - splits itself until the range has at most
+   * rowsPerTask rows and returns the statistics of the range
+   */
+  class DecodeTask extends RecursiveTask<Statistics> {
+    private static final long serialVersionUID = 1L;
+    private final Composite c;
+    private final Grid grid;
+    private final int stride;
+    private final RowDecoder decoder;
+    private final int fromRow;
+    private final int toRow;
+
+    DecodeTask(Composite c, Grid grid, int stride, RowDecoder decoder,
+        int fromRow, int toRow) {
+      this.c = c;
+      this.grid = grid;
+      this.stride = stride;
+      this.decoder = decoder;
+      this.fromRow = fromRow;
+      this.toRow = toRow;
+    }
+
+    @Override
+    protected Statistics compute() {
+      RadolanContext context = c.getContext();
+      if (toRow - fromRow <= context.getRowsPerTask()) {
+        Statistics statistics = new Statistics();
+        decodeRowRange(c, grid, stride, decoder, fromRow, toRow,
+            context.isCollectStatistics() ? statistics : null);
+        return statistics;
+      }
+      int middle = (fromRow + toRow) >>> 1;
+      DecodeTask upper = new DecodeTask(c, grid, stride, decoder, middle,
+          toRow);
+      upper.fork();
+      Statistics statistics = new DecodeTask(c, grid, stride, decoder,
+          fromRow, middle).compute();
+      return statistics.merge(upper.join());
+    }
+  }
+
   // arrangeData slices plain data into its data layers or strips preceeding
   // vertical projection
+  // The layers are views on the rows of the grid - no data is copied
   public void arrangeData(Composite c) {
-    // FIXME - needs to be implemented
+    Grid grid = c.getGrid();
+    if (grid == null || c.getDy() <= 0 || c.getPy() < c.getDy())
+      return;
+    Grid[] layers;
+    if (c.getPy() % c.getDy() == 0) { // multiple layers are linked downwards
+      layers = new Grid[c.getPy() / c.getDy()];
+      for (int i = 0; i < layers.length; i++) {
+        layers[i] = new GridView(grid, c.getDy() * i, c.getDy()); // split layers
+      }
+    } else { // only use bottom most part of plain data
+      layers = new Grid[] {
+          new GridView(grid, c.getPy() - c.getDy(), c.getDy()) }; // strip elevation
+    }
+    c.setLayers(layers);
     /*
      * if c.Py%c.Dy == 0 { // multiple layers are linked downwards
      * c.DataZ = make([][][]float32, c.Py/c.Dy)
@@ -108,11 +629,11 @@ public class Data {
     c.error = new Exception("parseUnknown - unknown encoding");
   }
 
-  private static Data instance;
+  // the instance is created when the class is initialized which is thread
+  // safe - the parse map is not modified afterwards
+  private static final Data instance = new Data();
 
   public static Data getInstance() {
-    if (instance == null)
-      instance = new Data();
     return instance;
   }
 }
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.BufferGrid;
+import com.bitplan.radolan.FloatGrid;
+import com.bitplan.radolan.Grid;
+import com.bitplan.radolan.PlainGrid;
+import com.bitplan.radolan.QuantizedGrid;
+import cs.fau.de.since.radolan.Catalog.Unit;
+import cs.fau.de.since.radolan.Data.Encoding;
+
+import java.io.File;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * creates the grid that holds the data of a composite - the header of the
+ * composite has already been parsed when the grid is created
+ * 
+ * @author wf
+ *
+ */
+@FunctionalInterface
+public interface GridFactory {
+
+  /**
+   * create the grid for the given composite
+   * 
+   * @param c
+   *          - the composite with parsed header data
+   * @return - the grid
+   * @throws Exception
+   */
+  Grid createGrid(Composite c) throws Exception;
+
+  // float array on the java heap
+  public static final GridFactory HEAP = c -> new FloatGrid(c.getPx(),
+      c.getPy());
+
+  // a float array per row - the rows are the PlainData of the composite for
+  // compatibility with code that uses PlainData - the default of
+  // RadolanContext
+  public static final GridFactory PLAIN = c -> new PlainGrid(c.getPx(),
+      c.getPy());
+
+  // direct buffer outside of the java heap
+  public static final GridFactory DIRECT = c -> BufferGrid
+      .allocateDirect(c.getPx(), c.getPy());
+
+  // raw short or byte values decoded on access - run length encoded
+  // composites keep their level values in a float array
+  public static final GridFactory QUANTIZED = c -> {
+    Encoding encoding = Data.getInstance().identifyEncoding(c);
+    if (encoding != Encoding.littleEndian && encoding != Encoding.singleByte)
+      return HEAP.createGrid(c);
+    // dBZ = rvp6 / 2 - 32.5 see Conversion.toDBZ
+    boolean dBZ = c.getDataUnit() == Unit.Unit_dBZ;
+    double scale = dBZ ? c.getPrecisionFactor() / 2 : c.getPrecisionFactor();
+    float offset = dBZ ? -32.5f : 0f;
+    return new QuantizedGrid(c.getPx(), c.getPy(),
+        encoding == Encoding.singleByte, scale, offset);
+  };
+
+  // rows decoded on first access - run length encoded composites are
+  // decoded completely. The grid keeps the bytes whatever the retention is
+  public static final GridFactory LAZY = c -> {
+    Encoding encoding = Data.getInstance().identifyEncoding(c);
+    if (encoding == Encoding.littleEndian)
+      return new LazyGrid(c, 2, LittleEndian.rowDecoder(c));
+    if (encoding == Encoding.singleByte)
+      return new LazyGrid(c, 1, SingleByte.rowDecoder(c));
+    return HEAP.createGrid(c);
+  };
+
+  /**
+   * get a factory for grids mapped to files in the given directory
+   * 
+   * @param directory
+   *          - the directory for the files which are named by the product
+   *          and capture time of the composite e.g. RY-2007241650.grid
+   * @return - the factory
+   */
+  public static GridFactory mapped(File directory) {
+    DateTimeFormatter format = DateTimeFormatter.ofPattern("yyMMddHHmm");
+    return c -> {
+      if (!directory.exists())
+        directory.mkdirs();
+      String name = String.format("%s-%s.grid", c.getProduct(),
+          format.format(c.getCaptureTime()));
+      return BufferGrid.map(new File(directory, name), c.getPx(), c.getPy());
+    };
+  }
+}
@@ -26,6 +26,7 @@ package cs.fau.de.since.radolan;
 import cs.fau.de.since.radolan.Catalog.Spec;
 import cs.fau.de.since.radolan.Catalog.Unit;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -81,6 +82,22 @@ public class Header {
   // parseHeader parses and the composite header and writes the related fields
   // as described in [1] and [3].
   public static void parseHeader(Composite c) throws Exception {
+    if (!c.getContext().isHeaderScanner()) {
+      parseHeaderSections(c);
+      return;
+    }
+    byte[] b = c.bytes;
+    if (b == null) {
+      b = c.header.getBytes(StandardCharsets.ISO_8859_1);
+    }
+    HeaderScanner scanner = new HeaderScanner();
+    scanner.scan(b, c.header.length());
+    scanner.apply(c);
+  }
+
+  // parseHeaderSections parses the composite header via the map of
+  // splitHeader
+  public static void parseHeaderSections(Composite c) throws Exception {
     // Split header segments
     Map<String, String> section = splitHeader(c.header); // without delimiter
 
@@ -0,0 +1,380 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import cs.fau.de.since.radolan.Catalog.Spec;
+import cs.fau.de.since.radolan.Catalog.Unit;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * single pass scanner for composite headers working directly on the bytes of
+ * the header - gives the same results as Header.parseHeaderSections without
+ * splitting the header into a map of strings
+ * 
+ * @author wf
+ *
+ */
+public class HeaderScanner {
+  // the header is searched for the 0x03 terminator in the first 1801 bytes
+  public static final int MAX_HEADER_LENGTH = 1802;
+
+  // raw field values of the last scan - the last occurrence of a key wins
+  private int byStart, byEnd; // "BY 405160"
+  private int gpStart, gpEnd; // "GP 450x 450"
+  private int bgStart, bgEnd; // "BG460460"
+  private int eStart, eEnd; // "PR E-01"
+  private int intStart, intEnd; // "INT 5"
+  private int vvStart, vvEnd; // "VV 005"
+  private int lvStart, lvEnd; // "LV 6 1.0 19.0 28.0 37.0 46.0 55.0"
+
+  // resolved header data
+  String product;
+  Unit dataUnit;
+  int headerLength; // including the 0x03 terminator
+  int dataLength;
+  ZonedDateTime captureTime;
+  ZonedDateTime forecastTime;
+  Duration interval;
+  int px, py, dx, dy;
+  boolean hasResolution;
+  double rx, ry;
+  boolean hasPrecision;
+  int precision;
+  float[] level;
+
+  /**
+   * scan the header at the start of the given bytes
+   * 
+   * @param b
+   *          - the bytes starting with the header
+   * @param length
+   *          - the length of the header including the 0x03 terminator
+   * @throws Exception
+   *           - if the header is invalid
+   */
+  public void scan(byte[] b, int length) throws Exception {
+    split(b, length);
+    resolve(b, length);
+  }
+
+  /**
+   * read the header from the given stream up to and including the 0x03
+   * terminator - the stream is not read any further
+   * 
+   * @param in
+   *          - the unzipped stream positioned at the start of the header
+   * @param buffer
+   *          - a buffer of at least MAX_HEADER_LENGTH bytes for the header
+   * @return - the length of the header including the terminator
+   * @throws Exception
+   *           - if the header is not terminated or too short or too long
+   */
+  public static int readHeader(InputStream in, byte[] buffer)
+      throws Exception {
+    int pos = 0;
+    int value = in.read();
+    // read until 0x03 is found or we are way into the binary see
+    // Composite.read
+    while (value != 0x03 && value != -1 && pos <= 1800) {
+      buffer[pos++] = (byte) value;
+      value = in.read();
+    }
+    if (value == -1) {
+      throw new Exception("header is not terminated");
+    }
+    buffer[pos] = (byte) value;
+    if (pos > 1799 || pos < 21) {
+      throw new Exception("header length " + pos + " out of valid range");
+    }
+    return pos + 1;
+  }
+
+  /**
+   * find the 0x03 terminator of the header at the start of the given bytes
+   * 
+   * @param b
+   *          - the bytes starting with the header
+   * @param length
+   *          - the number of valid bytes
+   * @return - the length of the header including the terminator
+   * @throws Exception
+   *           - if the header is not terminated or too short or too long
+   */
+  public static int headerLength(byte[] b, int length) throws Exception {
+    int pos = 0;
+    // read until 0x03 is found or we are way into the binary 2 x typical
+    // width 900 should suffice to terminate ...
+    while (pos < length && b[pos] != 0x03 && pos <= 1800) {
+      pos++;
+    }
+    if (pos == length) {
+      throw new Exception("header is not terminated");
+    }
+    if (pos > 1799 || pos < 21) {
+      throw new Exception("header length " + pos + " out of valid range");
+    }
+    return pos + 1;
+  }
+
+  /**
+   * check whether the given byte is the start or part of a key
+   * 
+   * @param value
+   * @return true for upper case letters
+   */
+  private static boolean isKey(byte value) {
+    return value >= 'A' && value <= 'Z';
+  }
+
+  /**
+   * check whether the key from start to end is the given key
+   */
+  private static boolean is(byte[] b, int start, int end, String key) {
+    if (end - start != key.length())
+      return false;
+    for (int i = 0; i < key.length(); i++) {
+      if (b[start + i] != key.charAt(i))
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * split the header into keys and values in a single pass - see
+   * Header.splitHeader
+   */
+  private void split(byte[] b, int length) {
+    byStart = gpStart = bgStart = eStart = intStart = vvStart = lvStart = -1;
+    if (length == 0 || !isKey(b[0]))
+      return; // no key prefixing value
+    int i = 0;
+    while (i < length) {
+      int keyStart = i;
+      while (i < length && isKey(b[i]))
+        i++;
+      int keyEnd = i;
+      while (i < length && !isKey(b[i]))
+        i++;
+      // the value is empty if the header ends with a key
+      value(b, keyStart, keyEnd, keyEnd, i);
+    }
+  }
+
+  /**
+   * remember the value of the given key
+   */
+  private void value(byte[] b, int keyStart, int keyEnd, int start, int end) {
+    if (is(b, keyStart, keyEnd, "BY")) {
+      byStart = start;
+      byEnd = end;
+    } else if (is(b, keyStart, keyEnd, "GP")) {
+      gpStart = start;
+      gpEnd = end;
+    } else if (is(b, keyStart, keyEnd, "BG")) {
+      bgStart = start;
+      bgEnd = end;
+    } else if (is(b, keyStart, keyEnd, "E")) {
+      eStart = start;
+      eEnd = end;
+    } else if (is(b, keyStart, keyEnd, "INT")) {
+      intStart = start;
+      intEnd = end;
+    } else if (is(b, keyStart, keyEnd, "VV")) {
+      vvStart = start;
+      vvEnd = end;
+    } else if (is(b, keyStart, keyEnd, "LV")) {
+      lvStart = start;
+      lvEnd = end;
+    }
+  }
+
+  /**
+   * parse the decimal integer from start to end ignoring leading and
+   * trailing control characters and spaces as String.trim does
+   * 
+   * @return - the value
+   */
+  static int parseInt(byte[] b, int start, int end) {
+    while (start < end && b[start] <= ' ')
+      start++;
+    while (end > start && b[end - 1] <= ' ')
+      end--;
+    int i = start;
+    boolean negative = false;
+    if (i < end && (b[i] == '-' || b[i] == '+')) {
+      negative = b[i] == '-';
+      i++;
+    }
+    if (i == end)
+      throw invalidNumber(b, start, end);
+    int value = 0;
+    for (; i < end; i++) {
+      int digit = b[i] - '0';
+      if (digit < 0 || digit > 9)
+        throw invalidNumber(b, start, end);
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  private static NumberFormatException invalidNumber(byte[] b, int start,
+      int end) {
+    return new NumberFormatException("For input string: \""
+        + new String(b, start, end - start, StandardCharsets.ISO_8859_1)
+        + "\"");
+  }
+
+  /**
+   * resolve the header data from the raw field values - see
+   * Header.parseHeaderSections
+   */
+  private void resolve(byte[] b, int length) throws Exception {
+    headerLength = length;
+    // Parse Product - Example: "PG" or "FZ"
+    product = new String(b, 0, 2, StandardCharsets.ISO_8859_1);
+
+    // Lookup Unit
+    Catalog catalog = Catalog.getInstance();
+    dataUnit = catalog.unitCatalog.getOrDefault(product, Unit.Unit_unknown);
+
+    // Parse DataLength - Example: "BY 405160"
+    if (byStart < 0) {
+      throw new Exception("parseHeader: missing dataLength/BY ######");
+    }
+    // remove header length including delimiter
+    dataLength = parseInt(b, byStart, byEnd) - length;
+
+    // Parse CaptureTime - Example: "PG262115100000616" or
+    // "FZ211615100000716" ddHHmm + WMO number + MMyy
+    captureTime = ZonedDateTime.of(2000 + parseInt(b, 15, 17),
+        parseInt(b, 13, 15), parseInt(b, 2, 4), parseInt(b, 4, 6),
+        parseInt(b, 6, 8), 0, 0, ZoneOffset.UTC);
+
+    // Parse ForecastTime - Example: "VV 005"
+    int min = vvStart < 0 ? 0 : parseInt(b, vvStart, vvEnd);
+    forecastTime = captureTime.plus(Duration.ofMinutes(min));
+
+    // Parse Interval - Example "INT 5" or "INT1008"
+    min = intStart < 0 ? 0 : parseInt(b, intStart, intEnd);
+    interval = Duration.ofMinutes(min);
+    switch (product) {
+    case "W1":
+    case "W2":
+    case "W3":
+    case "W4":
+      interval = interval.multipliedBy(10);
+      break;
+    }
+
+    // Parse Dimensions - Example: "GP 450x 450" or "BG460460" or
+    // "GP 1500x1400" (if defined)
+    hasResolution = false;
+    if (gpStart >= 0) {
+      int x = gpStart;
+      while (x < gpEnd && b[x] != 'x')
+        x++;
+      dy = parseInt(b, gpStart, x);
+      dx = parseInt(b, x + 1, gpEnd);
+      px = dx;
+      py = dy; // composite formats do not show elevation
+    } else if (bgStart >= 0) {
+      dy = parseInt(b, bgStart, bgStart + 3);
+      dx = parseInt(b, bgStart + 3, bgStart + 6);
+      px = dx;
+      py = dy; // composite formats do not show elevation
+    } else { // dimensions of local picture products not defined in header
+      Spec v = catalog.dimensionCatalog.get(product);
+      if (v == null) {
+        throw new Exception("parseHeader: no dimension information available");
+      }
+      px = v.px;
+      py = v.py; // plain data dimensions
+      dx = v.dx;
+      dy = v.dy; // data layer dimensions
+      rx = v.rx;
+      ry = v.ry; // data resolution
+      hasResolution = true;
+    }
+
+    // Parse Precision - Example: "PR E-01" or "PR E+00"
+    hasPrecision = eStart >= 0;
+    if (hasPrecision) {
+      precision = parseInt(b, eStart, eEnd);
+    }
+
+    // Parse Level - Example "LV 6 1.0 19.0 28.0 37.0 46.0 55.0"
+    // or "LV12-31.5-24.5-17.5-10.5 -5.5 -1.0 1.0 5.5 10.5 17.5 24.5 31.5"
+    level = null;
+    if (lvStart >= 0) {
+      int lvLength = lvEnd - lvStart;
+      if (lvLength < 2) {
+        throw new Exception("parseHeader: level field too short");
+      }
+      int cnt = parseInt(b, lvStart, lvStart + 2);
+      if (lvLength != cnt * 5 + 2) { // fortran format I2 + F5.1
+        throw new Exception("parseHeader: invalid level format: "
+            + new String(b, lvStart, lvLength, StandardCharsets.ISO_8859_1));
+      }
+      level = new float[cnt];
+      for (int i = 0; i < cnt; i++) {
+        int n = lvStart + i * 5 + 2;
+        level[i] = Float.parseFloat(
+            new String(b, n, 5, StandardCharsets.ISO_8859_1));
+      }
+    }
+  }
+
+  /**
+   * write the scanned header data to the given composite
+   * 
+   * @param c
+   */
+  public void apply(Composite c) {
+    c.setProduct(product);
+    c.setDataUnit(dataUnit);
+    c.setDataLength(dataLength);
+    c.CaptureTime = captureTime;
+    c.setForecastTime(forecastTime);
+    c.Interval = interval;
+    c.setDx(dx);
+    c.setDy(dy);
+    c.setPx(px);
+    c.setPy(py);
+    if (hasResolution) {
+      c.setResX(rx);
+      c.setResY(ry);
+    }
+    if (hasPrecision) {
+      c.setPrecision(precision);
+    }
+    if (level != null) {
+      c.level = level;
+    }
+  }
+}
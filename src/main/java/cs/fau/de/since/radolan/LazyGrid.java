@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.Grid;
+import cs.fau.de.since.radolan.Data.RowDecoder;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Grid implementation that decodes a row from the bytes of the composite when
+ * it is first accessed - decoded rows are kept and may be shared between
+ * threads. The statistics of the composite are not updated by lazy decoding.
+ * 
+ * The grid keeps its own reference to the bytes so the retention of the
+ * composite does not free them - see Composite.Retention
+ * 
+ * @author wf
+ *
+ */
+public class LazyGrid implements Grid {
+  private final int width;
+  private final int height;
+  private final AtomicReferenceArray<float[]> rows; // decoded rows or null
+
+  private final Composite c; // composite holding the tables of the decoder
+  // the raw bytes of the composite - null if it is streamed and all rows
+  // are set while reading
+  private final byte[] bytes;
+  private final int dataOffset; // position of the first row in bytes
+  private final int stride; // bytes per row
+  private final RowDecoder decoder;
+
+  /**
+   * create a grid that decodes its rows from the bytes of the given composite
+   * 
+   * @param c
+   *          - the composite with header data
+   * @param bytesPerValue
+   *          - the number of bytes per value of the encoding
+   * @param decoder
+   *          - the decoder for a row
+   */
+  LazyGrid(Composite c, int bytesPerValue, RowDecoder decoder) {
+    this.width = c.getPx();
+    this.height = c.getPy();
+    this.rows = new AtomicReferenceArray<float[]>(height);
+    this.c = c;
+    this.bytes = c.bytes;
+    this.dataOffset = c.getDataOffset();
+    this.stride = c.getDx() * bytesPerValue;
+    this.decoder = decoder;
+  }
+
+  /**
+   * get the number of rows that have been decoded so far
+   * 
+   * @return - the number of decoded rows
+   */
+  public int getDecodedRows() {
+    int decoded = 0;
+    for (int y = 0; y < height; y++) {
+      if (rows.get(y) != null)
+        decoded++;
+    }
+    return decoded;
+  }
+
+  /**
+   * get the row y - decode it if it has not been accessed yet
+   * 
+   * @param y
+   * @return - the decoded row
+   */
+  private float[] row(int y) {
+    float[] row = rows.get(y);
+    if (row == null) {
+      if (bytes == null)
+        throw new IllegalStateException(
+            String.format("LazyGrid: row %d has not been read", y));
+      row = new float[width];
+      // rows are stored vertically flipped
+      int pos = dataOffset + (height - 1 - y) * stride;
+      decoder.decode(c, bytes, pos, row, 0, width);
+      // another thread may have been faster - use its row
+      if (!rows.compareAndSet(y, null, row))
+        row = rows.get(y);
+    }
+    return row;
+  }
+
+  @Override
+  public int getWidth() {
+    return width;
+  }
+
+  @Override
+  public int getHeight() {
+    return height;
+  }
+
+  @Override
+  public float getValue(int x, int y) {
+    return row(y)[x];
+  }
+
+  @Override
+  public void setValue(int x, int y, float value) {
+    row(y)[x] = value;
+  }
+
+  @Override
+  public void setRow(int y, float[] src, int srcPos) {
+    float[] row = new float[width];
+    System.arraycopy(src, srcPos, row, 0, width);
+    rows.set(y, row);
+  }
+
+  @Override
+  public void getRow(int y, float[] dst, int dstPos) {
+    System.arraycopy(row(y), 0, dst, dstPos, width);
+  }
+}
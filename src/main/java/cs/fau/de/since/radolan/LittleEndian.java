@@ -23,7 +23,12 @@
  */
 package cs.fau.de.since.radolan;
 
+import com.bitplan.radolan.QuantizedGrid;
 import cs.fau.de.since.radolan.Catalog.Unit;
+import cs.fau.de.since.radolan.Data.RowDecoder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * migrated to Java from
@@ -34,22 +39,122 @@ import cs.fau.de.since.radolan.Catalog.Unit;
  */
 public class LittleEndian {
 
+  // decode tables by precision factor and data unit - see littleEndianTable
+  private static final Map<String, float[]> tables = new ConcurrentHashMap<String, float[]>();
+
   // parseLittleEndian parses the little endian encoded composite as described
   // in [1] and [3].
-  // Result are written into the previously created PlainData field of the
-  // composite.
+  // Result are written into the previously created grid of the composite.
+  // The rows are decoded in bulk directly from the bytes of the composite
+  // starting at the data offset using the lookup table of all two byte
+  // tuples - see readRowLittleEndian and decodeYLineLittleEndian for the row
+  // by row access
   public static void parseLittleEndian(Composite c) {
-    int last = c.PlainData.length - 1;
-    for (int y = 0; y < c.PlainData.length; y++) {
-      byte[] yline = readRowLittleEndian(c, y);
-      try {
-        int yt = last - y; // write vertically flipped
-        int yw = c.PlainData[last - y].length;
-        decodeYLineLittleEndian(c, yt, yw, yline);
-      } catch (Exception e) {
-        c.error = e;
-        break;
+    Data.getInstance().decodeRows(c, "decodeLittleEndian", 2, rowDecoder(c));
+  }
+
+  /**
+   * get the decoder for the rows of the given composite
+   * 
+   * @param c
+   *          - the composite with parsed header data
+   * @return - the decoder
+   */
+  public static RowDecoder rowDecoder(Composite c) {
+    if (!c.getContext().isLittleEndianTable())
+      return LittleEndian::decodeLittleEndianBranchFree;
+    c.littleEndianTable = littleEndianTable(c);
+    return LittleEndian::decodeLittleEndian;
+  }
+
+  /**
+   * get the lookup table that maps each of the 65536 possible two byte tuples
+   * to its value for the precision and data unit of the given composite. The
+   * index of a tuple is (tuple[1] &lt;&lt; 8 | tuple[0]) - the tables are
+   * shared between all composites with the same precision and unit
+   * 
+   * @param c
+   *          - the composite
+   * @return - the table
+   */
+  public static float[] littleEndianTable(Composite c) {
+    double precisionFactor = c.getPrecisionFactor();
+    Unit unit = c.getDataUnit();
+    String key = precisionFactor + " " + unit;
+    return tables.computeIfAbsent(key, k -> {
+      float[] table = new float[1 << 16];
+      for (int i = 0; i < table.length; i++) {
+        table[i] = rvp6LittleEndian(precisionFactor, unit, (byte) i,
+            (byte) (i >> 8));
       }
+      return table;
+    });
+  }
+
+  /**
+   * decode the given number of little endian encoded values using the lookup
+   * table of the composite
+   * 
+   * @param c
+   *          - the composite the values belong to
+   * @param src
+   *          - the source bytes
+   * @param srcPos
+   *          - the position of the first value's first byte in src
+   * @param dst
+   *          - the destination
+   * @param dstPos
+   *          - the position of the first value in dst
+   * @param width
+   *          - the number of values to decode
+   */
+  public static void decodeLittleEndian(Composite c, byte[] src, int srcPos,
+      float[] dst, int dstPos, int width) {
+    float[] table = c.littleEndianTable;
+    for (int x = 0; x < width; x++) {
+      dst[dstPos + x] = table[(src[srcPos] & 0xFF)
+          | ((src[srcPos + 1] & 0xFF) << 8)];
+      srcPos += 2;
+    }
+  }
+
+  /**
+   * decode the given number of little endian encoded values arithmetically
+   * without branches - gives the same values as rvp6LittleEndian with NaN
+   * having a different bit pattern than Float.NaN
+   * 
+   * @param c
+   *          - the composite the values belong to
+   * @param src
+   *          - the source bytes
+   * @param srcPos
+   *          - the position of the first value's first byte in src
+   * @param dst
+   *          - the destination
+   * @param dstPos
+   *          - the position of the first value in dst
+   * @param width
+   *          - the number of values to decode
+   */
+  public static void decodeLittleEndianBranchFree(Composite c, byte[] src,
+      int srcPos, float[] dst, int dstPos, int width) {
+    double precisionFactor = c.getPrecisionFactor();
+    // dBZ = rvp6 / 2 - 32.5 see Conversion.toDBZ - multiplying by 1 and
+    // adding 0 keeps other units unchanged
+    boolean dBZ = c.getDataUnit() == Unit.Unit_dBZ;
+    float scale = dBZ ? 0.5f : 1f;
+    float offset = dBZ ? -32.5f : 0f;
+    for (int x = 0; x < width; x++) {
+      int low = src[srcPos + 2 * x] & 0xFF;
+      int high = src[srcPos + 2 * x + 1] & 0xFF;
+      int value = ((high & 0x0F) << 8) | low;
+      int negative = (high >> 6) & 1; // flag: negative value
+      int noData = (high >> 5) & 1; // error code: no-data
+      value = (value ^ -negative) + negative; // negate if flag is set
+      float conv = (float) (value * precisionFactor) * scale + offset;
+      // setting the exponent and the quiet bit gives a NaN
+      dst[dstPos + x] = Float.intBitsToFloat(
+          Float.floatToRawIntBits(conv) | (-noData & 0x7fc00000));
     }
   }
 
@@ -91,23 +196,49 @@ public class LittleEndian {
   // to radar video processor values (rvp-6). NaN may be returned when the
   // no-data flag is set.
   public static float rvp6LittleEndian(Composite c, byte... tuple) {
+    return rvp6LittleEndian(c, tuple[0], tuple[1]);
+  }
+
+  // rvp6LittleEndian converts the given low and high byte
+  public static float rvp6LittleEndian(Composite c, byte low, byte high) {
+    return rvp6LittleEndian(c.getPrecisionFactor(), c.getDataUnit(), low,
+        high);
+  }
+
+  // raw gives the signed raw value of the given low and high byte - see
+  // rvp6LittleEndian - or QuantizedGrid.NO_DATA if the no-data flag is set
+  public static int raw(byte low, byte high) {
+    if ((high & (1 << 5)) != 0) { // error code: no-data
+      return QuantizedGrid.NO_DATA;
+    }
+    int value = ((0x0F & high) << 8) | (low & 0xFF);
+    if ((high & (1 << 6)) != 0) { // flag: negative value
+      value *= -1;
+    }
+    return value;
+  }
+
+  // rvp6LittleEndian converts the given low and high byte for the given
+  // precision factor and data unit
+  public static float rvp6LittleEndian(double precisionFactor, Unit unit,
+      byte low, byte high) {
     // https://stackoverflow.com/questions/3842828/converting-little-endian-to-big-endian
 
-    int value = 0x0F & tuple[1];
-    value = (value << 8) | (tuple[0] & 0xFF);
+    int value = 0x0F & high;
+    value = (value << 8) | (low & 0xFF);
 
-    if ((tuple[1] & (1 << 5)) != 0) { // error code: no-data
+    if ((high & (1 << 5)) != 0) { // error code: no-data
       return Float.NaN;
     }
 
-    if ((tuple[1] & (1 << 6)) != 0) { // flag: negative value
+    if ((high & (1 << 6)) != 0) { // flag: negative value
       value *= -1;
     }
 
-    float conv = (float) c.rvp6Raw(value); // set decimal point
+    float conv = (float) (value * precisionFactor); // set decimal point
 
     // little endian encoded formats are also used for mm/h
-    if (c.getDataUnit() != Unit.Unit_dBZ) {
+    if (unit != Unit.Unit_dBZ) {
       return conv;
     }
 
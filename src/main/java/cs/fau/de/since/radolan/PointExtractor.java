@@ -0,0 +1,322 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.util.CachedUrl;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * extract the time series of a set of coordinates from many composites - the
+ * coordinates are translated to grid indices once per grid and only the
+ * values at these indices are decoded from the bytes of each composite
+ * 
+ * <pre>
+ * PointExtractor extractor = new PointExtractor(north, east);
+ * float[][] series = extractor.extractFiles(files, ForkJoinPool.commonPool());
+ * // series[point][time] is the value of the point in files.get(time)
+ * </pre>
+ * 
+ * @author wf
+ *
+ */
+public class PointExtractor {
+  private final RadolanContext context;
+  private final double[] north;
+  private final double[] east;
+  // the resolved points by grid - most archives only have a single grid
+  private final Map<ProjectionTable, Points> points = new ConcurrentHashMap<ProjectionTable, Points>();
+  // the points of grids without projection
+  private final Points outside;
+
+  /**
+   * the grid indices of the points in ascending order so that the data
+   * section is read in one pass
+   */
+  static class Points {
+    final int[] indices; // ascending grid indices
+    final int[] order; // the point of each of the indices
+
+    Points(int[] pointIndices) {
+      int n = pointIndices.length;
+      long[] sorted = new long[n];
+      for (int p = 0; p < n; p++) {
+        // outside points are -1 and sort first
+        sorted[p] = ((long) pointIndices[p] << 32) | p;
+      }
+      Arrays.sort(sorted);
+      indices = new int[n];
+      order = new int[n];
+      for (int i = 0; i < n; i++) {
+        indices[i] = (int) (sorted[i] >> 32);
+        order[i] = (int) sorted[i];
+      }
+    }
+  }
+
+  /**
+   * source of the composite of a point in time
+   */
+  @FunctionalInterface
+  interface Opener<T> {
+    InputStream open(T source) throws Exception;
+  }
+
+  /**
+   * create an extractor for the given coordinates with the current static
+   * configuration
+   * 
+   * @param north
+   *          - the latitudes
+   * @param east
+   *          - the longitudes
+   */
+  public PointExtractor(double[] north, double[] east) {
+    this(RadolanContext.defaults(), north, east);
+  }
+
+  /**
+   * create an extractor for the given coordinates
+   * 
+   * @param context
+   *          - the configuration for reading the composites
+   * @param north
+   *          - the latitudes
+   * @param east
+   *          - the longitudes
+   */
+  public PointExtractor(RadolanContext context, double[] north,
+      double[] east) {
+    if (north.length != east.length) {
+      throw new IllegalArgumentException(String.format(
+          "PointExtractor: %d latitudes need as many longitudes but got %d",
+          north.length, east.length));
+    }
+    this.context = context;
+    this.north = north.clone();
+    this.east = east.clone();
+    int[] indices = new int[north.length];
+    Arrays.fill(indices, -1);
+    outside = new Points(indices);
+  }
+
+  public int getPointCount() {
+    return north.length;
+  }
+
+  /**
+   * get the grid indices of my points for the given grid dimensions
+   * 
+   * @param width
+   * @param height
+   * @return - the index y * width + x of each point - -1 for points outside
+   *         of the grid or for all points if there is no projection for the
+   *         grid
+   */
+  public int[] getIndices(int width, int height) {
+    Points resolved = resolve(ProjectionTable.of(width, height));
+    int[] indices = new int[north.length];
+    for (int i = 0; i < indices.length; i++) {
+      indices[resolved.order[i]] = resolved.indices[i];
+    }
+    return indices;
+  }
+
+  /**
+   * get my points resolved for the given table - the coordinates are only
+   * translated on first use
+   * 
+   * @param table
+   *          - the table of the grid or null if there is none
+   * @return - the points
+   */
+  private Points resolve(ProjectionTable table) {
+    if (table == null)
+      return outside;
+    return points.computeIfAbsent(table, t -> {
+      int[] indices = new int[north.length];
+      t.gridIndices(north, east, indices);
+      return new Points(indices);
+    });
+  }
+
+  /**
+   * get my points resolved for the given composite - via the shared table if
+   * the projection of the composite is the calibration of its grid and else
+   * via its own projection e.g. for a region
+   * 
+   * @param c
+   * @return - the points
+   */
+  private Points resolve(Composite c) {
+    ProjectionTable table = c.getProjectionTable();
+    if (table != null || !c.isProjection())
+      return resolve(table);
+    int n = north.length;
+    double[] x = new double[n];
+    double[] y = new double[n];
+    c.translateLatLonToGrid(north, east, x, y);
+    int width = c.getGridWidth();
+    int height = c.getGridHeight();
+    int[] indices = new int[n];
+    for (int i = 0; i < n; i++) {
+      // rounded as IPoint does
+      long gx = Math.round(x[i]);
+      long gy = Math.round(y[i]);
+      indices[i] = gx < 0 || gx >= width || gy < 0 || gy >= height
+          || Double.isNaN(x[i] + y[i]) ? -1 : (int) gy * width + (int) gx;
+    }
+    return new Points(indices);
+  }
+
+  /**
+   * extract the values of my points from the given composite
+   * 
+   * @param c
+   *          - the composite - decoded from its bytes if they are retained
+   *          and else read from its grid
+   * @param series
+   *          - the series [point][time] to write to
+   * @param time
+   *          - the index of the composite in the series
+   * @throws Exception
+   */
+  public void extract(Composite c, float[][] series, int time)
+      throws Exception {
+    extract(c, new float[north.length], series, time);
+  }
+
+  /**
+   * extract the values of my points from the given composite using the given
+   * buffer
+   * 
+   * @param c
+   * @param values
+   *          - buffer for the values of the points
+   * @param series
+   * @param time
+   * @throws Exception
+   */
+  private void extract(Composite c, float[] values, float[][] series,
+      int time) throws Exception {
+    Points resolved = resolve(c);
+    int[] indices = resolved.indices;
+    if (c.bytes != null && c.header != null) {
+      Data.getInstance().decodeValues(c, indices, values);
+    } else {
+      int width = c.getGridWidth();
+      for (int i = 0; i < indices.length; i++) {
+        int index = indices[i];
+        values[i] = index < 0 ? Float.NaN
+            : c.getValue(index % width, index / width);
+      }
+    }
+    for (int i = 0; i < indices.length; i++) {
+      series[resolved.order[i]][time] = values[i];
+    }
+  }
+
+  /**
+   * extract the time series of my points from the composites of the given
+   * urls - the cache is used as configured by my context
+   * 
+   * @param urls
+   *          - the urls of the composites in time order
+   * @param pool
+   *          - the pool to read the composites in parallel - null for
+   *          sequential
+   * @return - the series [point][time]
+   * @throws Throwable
+   */
+  public float[][] extract(List<String> urls, ForkJoinPool pool)
+      throws Throwable {
+    return extract(urls, url -> new URL(CachedUrl.checkCache(url,
+        context.isUseCache(), context.getCacheRootPath())).openStream(),
+        pool);
+  }
+
+  /**
+   * extract the time series of my points from the given composite files
+   * 
+   * @param files
+   *          - the (potentially zipped) files in time order
+   * @param pool
+   *          - the pool to read the files in parallel - null for sequential
+   * @return - the series [point][time]
+   * @throws Throwable
+   */
+  public float[][] extractFiles(List<File> files, ForkJoinPool pool)
+      throws Throwable {
+    return extract(files, FileInputStream::new, pool);
+  }
+
+  /**
+   * extract the time series from the given sources - each task reads its
+   * composites with its own recycled parser
+   * 
+   * @param sources
+   * @param opener
+   * @param pool
+   * @return - the series [point][time]
+   * @throws Throwable
+   *           - the first failure
+   */
+  private <T> float[][] extract(List<T> sources, Opener<T> opener,
+      ForkJoinPool pool) throws Throwable {
+    int times = sources.size();
+    float[][] series = new float[north.length][times];
+    // only Exceptions are collected - Errors such as OutOfMemoryError
+    // propagate
+    AtomicReference<Exception> failure = new AtomicReference<Exception>();
+    int filesPerTask = context.getFilesPerTask();
+    Translate.forEachRange(times, filesPerTask, pool, (from, to) -> {
+      try (CompositeParser parser = new CompositeParser(context)) {
+        float[] values = new float[north.length];
+        for (int time = from; time < to && failure.get() == null; time++) {
+          T source = sources.get(time);
+          try (InputStream in = opener.open(source)) {
+            Composite c = parser.readHeader(in);
+            c.calibrateProjection(); // shared by all composites of the grid
+            extract(c, values, series, time);
+          } catch (Exception e) {
+            failure.compareAndSet(null, new Exception(String
+                .format("extract - %s: %s", source, e.getMessage()), e));
+          }
+        }
+      }
+    });
+    if (failure.get() != null)
+      throw failure.get();
+    return series;
+  }
+}
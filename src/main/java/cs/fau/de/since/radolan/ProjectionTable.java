@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.geo.GeoProjection;
+import cs.fau.de.since.radolan.Translate.GridType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * coordinate translation for all composites of the same grid dimensions -
+ * the per projection constants of Translate.translate are hoisted and the
+ * latitude and longitude of each grid cell are looked up in tables that are
+ * built once on first use
+ * 
+ * @author wf
+ *
+ */
+public class ProjectionTable {
+  // tables by grid dimensions - see key
+  private static final Map<Long, ProjectionTable> tables = new ConcurrentHashMap<Long, ProjectionTable>();
+
+  private final int width;
+  private final int height;
+  // calibration of my grid - see Calibration
+  private final double offSetX;
+  private final double offSetY;
+  private final double resX;
+  private final double resY;
+
+  // hoisted constant of Translate.inversePolarStereoProjection
+  private static final double term = Translate.square(Translate.earthRadius)
+      * Translate.square((1 + Math.sin(Translate.phi0)));
+
+  // latitude and longitude of each grid cell [y * width + x] - built lazily
+  private volatile float[] lat;
+  private volatile float[] lon;
+
+  /**
+   * create the table for the given calibration
+   * 
+   * @param calibration
+   */
+  private ProjectionTable(Calibration calibration) {
+    width = calibration.getWidth();
+    height = calibration.getHeight();
+    offSetX = calibration.getOffSetX();
+    offSetY = calibration.getOffSetY();
+    resX = calibration.getResX();
+    resY = calibration.getResY();
+  }
+
+  private static Long key(int width, int height) {
+    return ((long) width << 32) | (height & 0xFFFFFFFFL);
+  }
+
+  /**
+   * get the table for the given projection
+   * 
+   * @param pro
+   * @return - the table shared by all projections with the same dimensions
+   *         and calibration or null if there is none e.g. if the projection
+   *         is not calibrated or has been modified
+   */
+  public static ProjectionTable of(GeoProjection pro) {
+    if (!pro.isProjection())
+      return null;
+    ProjectionTable table = of(pro.getGridWidth(), pro.getGridHeight());
+    return table != null && table.matches(pro) ? table : null;
+  }
+
+  /**
+   * get the table for the given grid dimensions
+   * 
+   * @param width
+   * @param height
+   * @return - the table shared by all calibrated projections with these
+   *         dimensions or null if there is no projection for the dimensions
+   */
+  public static ProjectionTable of(int width, int height) {
+    // only known grids have a projection - nothing is cached for others
+    if (Translate.detectGrid(width, height) == GridType.unknownGrid)
+      return null;
+    Calibration calibration = Calibration.of(width, height);
+    if (!calibration.isProjection())
+      return null;
+    return tables.computeIfAbsent(key(width, height),
+        k -> new ProjectionTable(calibration));
+  }
+
+  /**
+   * check whether I am valid for the given projection
+   * 
+   * @param pro
+   * @return - true if the projection has my dimensions and calibration
+   */
+  public boolean matches(GeoProjection pro) {
+    return pro.isProjection() && pro.getGridWidth() == width
+        && pro.getGridHeight() == height && pro.getOffSetX() == offSetX
+        && pro.getOffSetY() == offSetY && pro.getResX() == resX
+        && pro.getResY() == resY;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   * translate the given coordinate to the x grid coordinate - gives the same
+   * result as Translate.translate
+   * 
+   * @param north
+   * @param east
+   * @return - the x grid coordinate
+   */
+  public double gridX(double north, double east) {
+    double phi = Translate.rad(north);
+    double lambda = Translate.rad(east);
+    double m = (1.0 + Translate.sinPhi0) / (1.0 + Math.sin(phi));
+    double x = (Translate.earthRadius * m * Math.cos(phi)
+        * Math.sin(lambda - Translate.lambda0));
+    return (x - offSetX) / resX;
+  }
+
+  /**
+   * translate the given coordinate to the y grid coordinate - gives the same
+   * result as Translate.translate
+   * 
+   * @param north
+   * @param east
+   * @return - the y grid coordinate
+   */
+  public double gridY(double north, double east) {
+    double phi = Translate.rad(north);
+    double lambda = Translate.rad(east);
+    double m = (1.0 + Translate.sinPhi0) / (1.0 + Math.sin(phi));
+    double y = (Translate.earthRadius * m * Math.cos(phi)
+        * Math.cos(lambda - Translate.lambda0));
+    return (y - offSetY) / resY;
+  }
+
+  /**
+   * get the index y * width + x of the grid cell nearest to the given
+   * coordinate
+   * 
+   * @param north
+   * @param east
+   * @return - the index or -1 if the coordinate is outside of the grid
+   */
+  public int gridIndex(double north, double east) {
+    double phi = Translate.rad(north);
+    double lambda = Translate.rad(east);
+    double m = (1.0 + Translate.sinPhi0) / (1.0 + Math.sin(phi));
+    double rmc = Translate.earthRadius * m * Math.cos(phi);
+    double dLambda = lambda - Translate.lambda0;
+    // rounded as IPoint does
+    long x = Math.round((rmc * Math.sin(dLambda) - offSetX) / resX);
+    long y = Math.round((rmc * Math.cos(dLambda) - offSetY) / resY);
+    if (x < 0 || x >= width || y < 0 || y >= height
+        || Double.isNaN(north + east))
+      return -1;
+    return (int) y * width + (int) x;
+  }
+
+  /**
+   * get the grid indices of the cells nearest to the given coordinates in one
+   * call - see gridIndex
+   * 
+   * @param north
+   *          - the latitudes
+   * @param east
+   *          - the longitudes
+   * @param indices
+   *          - the indices y * width + x - -1 for coordinates outside of
+   *          the grid
+   */
+  public void gridIndices(double[] north, double[] east, int[] indices) {
+    gridIndices(north, east, indices, null, north.length);
+  }
+
+  /**
+   * get the grid indices of the cells nearest to the given coordinates in one
+   * call - see gridIndex
+   * 
+   * @param north
+   *          - the latitudes
+   * @param east
+   *          - the longitudes
+   * @param indices
+   *          - the indices y * width + x - -1 for coordinates outside of
+   *          the grid
+   * @param pool
+   *          - the pool to translate in parallel - null for sequential
+   * @param coordinatesPerTask
+   *          - the number of coordinates translated by a single parallel
+   *          task - see RadolanContext.getCoordinatesPerTask
+   */
+  public void gridIndices(double[] north, double[] east, int[] indices,
+      ForkJoinPool pool, int coordinatesPerTask) {
+    int n = north.length;
+    if (east.length != n || indices.length < n) {
+      throw new IllegalArgumentException(String.format(
+          "gridIndices: %d latitudes need %d longitudes and indices of at least that size",
+          n, n));
+    }
+    Translate.forEachRange(n, coordinatesPerTask, pool, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        indices[i] = gridIndex(north[i], east[i]);
+      }
+    });
+  }
+
+  /**
+   * get the latitude of the given grid cell
+   * 
+   * @param x
+   * @param y
+   * @return - the latitude
+   */
+  public float getLat(int x, int y) {
+    return latitudes()[y * width + x];
+  }
+
+  /**
+   * get the longitude of the given grid cell
+   * 
+   * @param x
+   * @param y
+   * @return - the longitude
+   */
+  public float getLon(int x, int y) {
+    return longitudes()[y * width + x];
+  }
+
+  private float[] latitudes() {
+    if (lat == null)
+      buildLatLon();
+    return lat;
+  }
+
+  private float[] longitudes() {
+    if (lon == null)
+      buildLatLon();
+    return lon;
+  }
+
+  /**
+   * build the latitude and longitude tables - see
+   * Translate.translateXYtoLatLon
+   */
+  private synchronized void buildLatLon() {
+    if (lat != null && lon != null)
+      return;
+    float[] lats = new float[width * height];
+    float[] lons = new float[width * height];
+    for (int y = 0; y < height; y++) {
+      double py = -(y * resY + offSetY); // negation of y component
+      for (int x = 0; x < width; x++) {
+        double px = x * resX + offSetX;
+        double lambda = Math.atan(-px / py) + Translate.lambda0;
+        double sq = Translate.square(px) + Translate.square(py);
+        double phi = Math.asin((term - sq) / (term + sq));
+        lats[y * width + x] = (float) Math.toDegrees(phi);
+        lons[y * width + x] = (float) Math.toDegrees(lambda);
+      }
+    }
+    lat = lats;
+    lon = lons;
+  }
+}
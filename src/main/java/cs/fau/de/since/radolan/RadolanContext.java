@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.geo.ProjectionImpl;
+import com.bitplan.util.CachedUrl;
+import cs.fau.de.since.radolan.Composite.Retention;
+
+import java.io.InputStream;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+/**
+ * immutable configuration for loading composites - unlike the static
+ * configuration of Composite, ProjectionImpl and CachedUrl a context can be
+ * shared between threads and different contexts can be used at the same time
+ * 
+ * <pre>
+ * RadolanContext context = RadolanContext.builder().useCache(false)
+ *     .gridFactory(GridFactory.QUANTIZED).build();
+ * Composite c = context.load(url);
+ * </pre>
+ * 
+ * @author wf
+ *
+ */
+public final class RadolanContext {
+  private final boolean useCache;
+  private final String cacheRootPath;
+  private final boolean debug;
+  private final Consumer<Composite> postInit;
+  private final GridFactory gridFactory;
+  private final boolean streaming;
+  private final boolean mapping;
+  private final Retention retention;
+  private final ForkJoinPool decodePool;
+  private final int rowsPerTask;
+  private final boolean collectStatistics;
+  private final boolean littleEndianTable;
+  private final boolean headerScanner;
+  private final int coordinatesPerTask;
+  private final int filesPerTask;
+
+  private RadolanContext(Builder builder) {
+    useCache = builder.useCache;
+    cacheRootPath = builder.cacheRootPath;
+    debug = builder.debug;
+    postInit = builder.postInit;
+    gridFactory = builder.gridFactory;
+    streaming = builder.streaming;
+    mapping = builder.mapping;
+    retention = builder.retention;
+    decodePool = builder.decodePool;
+    rowsPerTask = builder.rowsPerTask;
+    collectStatistics = builder.collectStatistics;
+    littleEndianTable = builder.littleEndianTable;
+    headerScanner = builder.headerScanner;
+    coordinatesPerTask = builder.coordinatesPerTask;
+    filesPerTask = builder.filesPerTask;
+  }
+
+  /**
+   * get a context with the current values of the static configuration
+   * 
+   * @return - the context
+   */
+  public static RadolanContext defaults() {
+    return builder().build();
+  }
+
+  /**
+   * get a builder that starts with the current values of the static
+   * configuration
+   * 
+   * @return - the builder
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * get a builder that starts with my values
+   * 
+   * @return - the builder
+   */
+  public Builder toBuilder() {
+    Builder builder = new Builder();
+    builder.useCache = useCache;
+    builder.cacheRootPath = cacheRootPath;
+    builder.debug = debug;
+    builder.postInit = postInit;
+    builder.gridFactory = gridFactory;
+    builder.streaming = streaming;
+    builder.mapping = mapping;
+    builder.retention = retention;
+    builder.decodePool = decodePool;
+    builder.rowsPerTask = rowsPerTask;
+    builder.collectStatistics = collectStatistics;
+    builder.littleEndianTable = littleEndianTable;
+    builder.headerScanner = headerScanner;
+    builder.coordinatesPerTask = coordinatesPerTask;
+    builder.filesPerTask = filesPerTask;
+    return builder;
+  }
+
+  /**
+   * load a composite from the given url with my configuration
+   * 
+   * @param url
+   * @return - the composite
+   * @throws Throwable
+   */
+  public Composite load(String url) throws Throwable {
+    return new Composite(url, this);
+  }
+
+  /**
+   * load a composite from the given input stream with my configuration
+   * 
+   * @param inputStream
+   * @return - the composite
+   * @throws Throwable
+   */
+  public Composite load(InputStream inputStream) throws Throwable {
+    return new Composite(inputStream, this);
+  }
+
+  public boolean isUseCache() {
+    return useCache;
+  }
+
+  public String getCacheRootPath() {
+    return cacheRootPath;
+  }
+
+  public boolean isDebug() {
+    return debug;
+  }
+
+  public Consumer<Composite> getPostInit() {
+    return postInit;
+  }
+
+  public GridFactory getGridFactory() {
+    return gridFactory;
+  }
+
+  public boolean isStreaming() {
+    return streaming;
+  }
+
+  public boolean isMapping() {
+    return mapping;
+  }
+
+  public Retention getRetention() {
+    return retention;
+  }
+
+  public ForkJoinPool getDecodePool() {
+    return decodePool;
+  }
+
+  public int getRowsPerTask() {
+    return rowsPerTask;
+  }
+
+  public boolean isCollectStatistics() {
+    return collectStatistics;
+  }
+
+  public boolean isLittleEndianTable() {
+    return littleEndianTable;
+  }
+
+  public boolean isHeaderScanner() {
+    return headerScanner;
+  }
+
+  public int getCoordinatesPerTask() {
+    return coordinatesPerTask;
+  }
+
+  public int getFilesPerTask() {
+    return filesPerTask;
+  }
+
+  /**
+   * builder for a context - not thread safe
+   */
+  public static class Builder {
+    private boolean useCache = Composite.useCache;
+    private String cacheRootPath = CachedUrl.cacheRootPath;
+    private boolean debug = ProjectionImpl.debug;
+    private Consumer<Composite> postInit = Composite.getPostInit();
+    private GridFactory gridFactory = GridFactory.PLAIN;
+    private boolean streaming = false;
+    private boolean mapping = false;
+    private Retention retention = Retention.KEEP;
+    private ForkJoinPool decodePool = null;
+    private int rowsPerTask = 100;
+    private boolean collectStatistics = true;
+    private boolean littleEndianTable = true;
+    private boolean headerScanner = true;
+    private int coordinatesPerTask = 4096;
+    private int filesPerTask = 8;
+
+    private Builder() {
+    }
+
+    // cache files from known URLs locally - see CachedUrl.checkCache
+    public Builder useCache(boolean useCache) {
+      this.useCache = useCache;
+      return this;
+    }
+
+    // the cache directory - null for $HOME/.radolan
+    public Builder cacheRootPath(String cacheRootPath) {
+      this.cacheRootPath = cacheRootPath;
+      return this;
+    }
+
+    public Builder debug(boolean debug) {
+      this.debug = debug;
+      return this;
+    }
+
+    // called for each composite after it has been initialized
+    public Builder postInit(Consumer<Composite> postInit) {
+      this.postInit = postInit;
+      return this;
+    }
+
+    // PLAIN by default so that PlainData is available as before
+    public Builder gridFactory(GridFactory gridFactory) {
+      this.gridFactory = gridFactory;
+      return this;
+    }
+
+    // decode while reading - see Composite.readStream
+    public Builder streaming(boolean streaming) {
+      this.streaming = streaming;
+      return this;
+    }
+
+    // memory map local files and decode while reading them - see
+    // Composite.load
+    public Builder mapping(boolean mapping) {
+      this.mapping = mapping;
+      return this;
+    }
+
+    public Builder retention(Retention retention) {
+      this.retention = retention;
+      return this;
+    }
+
+    // pool for decoding the rows in parallel - null for sequential decoding
+    public Builder decodePool(ForkJoinPool decodePool) {
+      this.decodePool = decodePool;
+      return this;
+    }
+
+    public Builder rowsPerTask(int rowsPerTask) {
+      this.rowsPerTask = rowsPerTask;
+      return this;
+    }
+
+    public Builder collectStatistics(boolean collectStatistics) {
+      this.collectStatistics = collectStatistics;
+      return this;
+    }
+
+    // decode little endian rows with the lookup table - if false with the
+    // branch free kernel see LittleEndian.rowDecoder
+    public Builder littleEndianTable(boolean littleEndianTable) {
+      this.littleEndianTable = littleEndianTable;
+      return this;
+    }
+
+    // parse headers with the HeaderScanner - if false with the section map
+    // see Header.parseHeader
+    public Builder headerScanner(boolean headerScanner) {
+      this.headerScanner = headerScanner;
+      return this;
+    }
+
+    // coordinates translated by a single parallel task - see
+    // Translate.translate
+    public Builder coordinatesPerTask(int coordinatesPerTask) {
+      this.coordinatesPerTask = coordinatesPerTask;
+      return this;
+    }
+
+    // composites extracted by a single parallel task - see PointExtractor
+    public Builder filesPerTask(int filesPerTask) {
+      this.filesPerTask = filesPerTask;
+      return this;
+    }
+
+    public RadolanContext build() {
+      if (gridFactory == null)
+        throw new IllegalArgumentException("gridFactory must not be null");
+      if (retention == null)
+        throw new IllegalArgumentException("retention must not be null");
+      if (rowsPerTask < 1)
+        throw new IllegalArgumentException("rowsPerTask must be positive");
+      if (coordinatesPerTask < 1)
+        throw new IllegalArgumentException(
+            "coordinatesPerTask must be positive");
+      if (filesPerTask < 1)
+        throw new IllegalArgumentException("filesPerTask must be positive");
+      return new RadolanContext(this);
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.util.CachedUrl;
+import cs.fau.de.since.radolan.Catalog.Unit;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+
+/**
+ * immutable header data of a composite that is read without reading the
+ * binary data section e.g. to index large archives
+ * 
+ * @author wf
+ *
+ */
+public final class RadolanHeader {
+  private final String product;
+  private final Unit dataUnit;
+  private final ZonedDateTime captureTime;
+  private final ZonedDateTime forecastTime;
+  private final Duration interval;
+  private final int px, py; // plain data dimensions
+  private final int dx, dy; // data layer dimensions
+  private final int headerLength; // including the 0x03 terminator
+  private final int dataLength; // length of binary section in bytes
+  private final int precision;
+  private final float[] level;
+
+  /**
+   * create the header from the data of the given scanner
+   * 
+   * @param scanner
+   */
+  private RadolanHeader(HeaderScanner scanner) {
+    product = scanner.product;
+    dataUnit = scanner.dataUnit;
+    captureTime = scanner.captureTime;
+    forecastTime = scanner.forecastTime;
+    interval = scanner.interval;
+    px = scanner.px;
+    py = scanner.py;
+    dx = scanner.dx;
+    dy = scanner.dy;
+    headerLength = scanner.headerLength;
+    dataLength = scanner.dataLength;
+    precision = scanner.hasPrecision ? scanner.precision : 0;
+    level = scanner.level;
+  }
+
+  /**
+   * parse the header at the start of the given bytes
+   * 
+   * @param bytes
+   * @param length
+   *          - the length of the header including the 0x03 terminator
+   * @return - the header
+   * @throws Exception
+   */
+  public static RadolanHeader parse(byte[] bytes, int length)
+      throws Exception {
+    HeaderScanner scanner = new HeaderScanner();
+    scanner.scan(bytes, length);
+    return new RadolanHeader(scanner);
+  }
+
+  /**
+   * read the header from the given (potentially zipped) InputStream - only
+   * the header is read and unzipped, the stream is not closed
+   * 
+   * @param inputStream
+   * @return - the header
+   * @throws Exception
+   */
+  public static RadolanHeader read(InputStream inputStream) throws Exception {
+    // the small buffers keep the unzipping from running far past the header
+    InputStream in = CachedUrl.unzipped(inputStream,
+        HeaderScanner.MAX_HEADER_LENGTH);
+    byte[] buffer = new byte[HeaderScanner.MAX_HEADER_LENGTH];
+    int length = HeaderScanner.readHeader(in, buffer);
+    return parse(buffer, length);
+  }
+
+  /**
+   * read the header of the given (potentially zipped) file
+   * 
+   * @param file
+   * @return - the header
+   * @throws Exception
+   */
+  public static RadolanHeader read(File file) throws Exception {
+    try (InputStream in = new FileInputStream(file)) {
+      return read(in);
+    }
+  }
+
+  public String getProduct() {
+    return product;
+  }
+
+  public Unit getDataUnit() {
+    return dataUnit;
+  }
+
+  public ZonedDateTime getCaptureTime() {
+    return captureTime;
+  }
+
+  public ZonedDateTime getForecastTime() {
+    return forecastTime;
+  }
+
+  public Duration getInterval() {
+    return interval;
+  }
+
+  public int getPx() {
+    return px;
+  }
+
+  public int getPy() {
+    return py;
+  }
+
+  public int getDx() {
+    return dx;
+  }
+
+  public int getDy() {
+    return dy;
+  }
+
+  public int getHeaderLength() {
+    return headerLength;
+  }
+
+  public int getDataLength() {
+    return dataLength;
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * get the level values of run length encoded products
+   * 
+   * @return - a copy of the levels or null if there are none
+   */
+  public float[] getLevel() {
+    return level == null ? null : level.clone();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s %s %dx%d %s %s %d bytes", product, captureTime,
+        dx, dy, interval, dataUnit, dataLength)
+        + (level == null ? "" : " " + Arrays.toString(level));
+  }
+}
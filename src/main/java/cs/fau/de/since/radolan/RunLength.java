@@ -23,17 +23,261 @@
  */
 package cs.fau.de.since.radolan;
 
+import com.bitplan.radolan.Grid;
+import com.bitplan.radolan.Statistics;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
 /**
  * migrated to Java from https://gitlab.cs.fau.de/since/radolan/blob/master/runlength.go
  * @author wf
  *
  */
 public class RunLength {
-  
+
+  // parseRunlength parses the runlength encoded composite and writes into the
+  // previously created grid of the composite.
+  // The lines are scanned in place in the bytes of the composite and decoded
+  // directly into the grid - unlike the other encodings the lines are not
+  // vertically flipped
+  public static void parseRunlength(Composite c) {
+    float[] levels = runlengthTable(c);
+    Grid grid = c.getGrid();
+    int width = grid.getWidth();
+    Statistics statistics = c.getContext().isCollectStatistics()
+        ? c.getStatistics() : null;
+    float[] buffer = new float[width]; // for grids without row arrays
+    byte[] bytes = c.bytes;
+    int pos = c.getDataOffset();
+    int limit = Math.min(bytes.length, c.getDataOffset() + c.getDataLength());
+    for (int y = 0; y < grid.getHeight(); y++) {
+      // readLineRunlength - find the end of the line
+      int end = pos;
+      while (end < limit && bytes[end] != 0x0A) {
+        end++;
+      }
+      if (end == limit) {
+        c.error = new Exception(String.format(
+            "readLineRunlength - line %d is not terminated", y));
+        return;
+      }
+      // decode directly into the storage of the grid if possible
+      float[] row = Data.rowArray(grid, y);
+      int dstPos = row != null ? Data.rowOffset(grid, y) : 0;
+      if (row == null)
+        row = buffer;
+      if (!decodeRunlength(c, levels, bytes, pos, end, row, dstPos, width))
+        return;
+      if (statistics != null)
+        statistics.add(row, dstPos, width);
+      if (row == buffer)
+        grid.setRow(y, row, 0);
+      pos = end + 1; // skip newline
+    }
+  }
+
+  // parseRunlength parses the runlength encoded composite from the given
+  // stream which is positioned after the header and writes into the
+  // previously created grid of the composite.
+  // Only a single line is buffered
+  public static void parseRunlength(Composite c, InputStream in)
+      throws IOException {
+    float[] levels = runlengthTable(c);
+    Grid grid = c.getGrid();
+    int width = grid.getWidth();
+    Statistics statistics = c.getContext().isCollectStatistics()
+        ? c.getStatistics() : null;
+    float[] buffer = new float[width]; // for grids without row arrays
+    byte[] line = new byte[width + 16];
+    for (int y = 0; y < grid.getHeight(); y++) {
+      // readLineRunlength - read until newline (non inclusive)
+      int end = 0;
+      int value = in.read();
+      while (value != 0x0A && value != -1) {
+        if (end == line.length)
+          line = Arrays.copyOf(line, line.length * 2);
+        line[end++] = (byte) value;
+        value = in.read();
+      }
+      if (value == -1) {
+        c.error = new Exception(String.format(
+            "readLineRunlength - line %d is not terminated", y));
+        return;
+      }
+      // decode directly into the storage of the grid if possible
+      float[] row = Data.rowArray(grid, y);
+      int dstPos = row != null ? Data.rowOffset(grid, y) : 0;
+      if (row == null)
+        row = buffer;
+      if (!decodeRunlength(c, levels, line, 0, end, row, dstPos, width))
+        return;
+      if (statistics != null)
+        statistics.add(row, dstPos, width);
+      if (row == buffer)
+        grid.setRow(y, row, 0);
+    }
+  }
+
+  // decodeValues decodes the values at the given indices y * width + x of the
+  // layer starting at layerRow from the bytes of the composite - only the
+  // lines holding one of the indices are decoded, the lines before are
+  // skipped. Ascending indices decode each line only once
+  static void decodeValues(Composite c, int layerRow, int[] indices,
+      float[] values) {
+    float[] levels = runlengthTable(c);
+    int width = c.getDx();
+    int size = width * c.getDy();
+    int lastRow = -1;
+    for (int index : indices) {
+      if (index >= 0 && index < size)
+        lastRow = Math.max(lastRow, layerRow + index / width);
+    }
+    // the start of each line up to the last needed one and its end
+    int[] starts = new int[lastRow + 2];
+    byte[] bytes = c.bytes;
+    int limit = Math.min(bytes.length, c.getDataOffset() + c.getDataLength());
+    int pos = c.getDataOffset();
+    for (int y = 0; y <= lastRow; y++) {
+      int end = pos;
+      while (end < limit && bytes[end] != 0x0A) {
+        end++;
+      }
+      if (end == limit) {
+        c.error = new Exception(String.format(
+            "readLineRunlength - line %d is not terminated", y));
+        return;
+      }
+      starts[y] = pos;
+      pos = end + 1; // skip newline
+    }
+    starts[lastRow + 1] = pos;
+    float[] row = new float[width];
+    int decodedRow = -1;
+    for (int i = 0; i < indices.length; i++) {
+      int index = indices[i];
+      if (index < 0 || index >= size) {
+        values[i] = Float.NaN;
+        continue;
+      }
+      int y = layerRow + index / width;
+      if (y != decodedRow) {
+        if (!decodeRunlength(c, levels, bytes, starts[y], starts[y + 1] - 1,
+            row, 0, width))
+          return;
+        decodedRow = y;
+      }
+      values[i] = row[index % width];
+    }
+  }
+
+  // decodeRegion decodes the lines of the runlength encoded composite
+  // starting at fromRow and writes the columns starting at x to the given
+  // grid which has the size of the region - the lines before are only
+  // skipped and the lines after are not read
+  static void decodeRegion(Composite c, int fromRow, int x, Grid grid,
+      Statistics statistics) {
+    float[] levels = runlengthTable(c);
+    int width = c.getDx();
+    int regionWidth = grid.getWidth();
+    float[] line = new float[width];
+    byte[] bytes = c.bytes;
+    int limit = Math.min(bytes.length, c.getDataOffset() + c.getDataLength());
+    int pos = c.getDataOffset();
+    for (int y = 0; y < fromRow + grid.getHeight(); y++) {
+      int end = pos;
+      while (end < limit && bytes[end] != 0x0A) {
+        end++;
+      }
+      if (end == limit) {
+        c.error = new Exception(String.format(
+            "readLineRunlength - line %d is not terminated", y));
+        return;
+      }
+      if (y >= fromRow) {
+        if (!decodeRunlength(c, levels, bytes, pos, end, line, 0, width))
+          return;
+        if (statistics != null)
+          statistics.add(line, x, regionWidth);
+        grid.setRow(y - fromRow, line, x);
+      }
+      pos = end + 1; // skip newline
+    }
+  }
+
+  /**
+   * get the table that maps each of the 16 possible run values to its level
+   * value - see rvp6Runlength
+   * 
+   * @param c
+   *          - the composite with the level values
+   * @return - the table
+   */
+  public static float[] runlengthTable(Composite c) {
+    float[] table = new float[16];
+    for (int value = 0; value < table.length; value++) {
+      table[value] = rvp6Runlength(c, value);
+    }
+    return table;
+  }
+
+  // decodeRunlength decodes the source line from start (inclusive) to end
+  // (exclusive) and writes width values to the given destination
+  // starting at dstPos.
+  // returns false and sets the error of the composite if the line is invalid
+  static boolean decodeRunlength(Composite c, float[] levels, byte[] src,
+      int start, int end, float[] dst, int dstPos, int width) {
+    // fill destination as runlength encoding will induce gaps
+    Arrays.fill(dst, dstPos, dstPos + width, Float.NaN);
+
+    int x = 0;
+    boolean offset = true;
+    // skip useless line number
+    for (int i = start + 1; i < end; i++) {
+      int value = src[i] & 0xFF;
+      if (offset) { // calculate offset
+        if (value < 16) {
+          c.error = new Exception("decodeRunlength - invalid offset value");
+          return false;
+        }
+        x += value - 16; // update offset position
+        offset = value == 255; // see if next byte will be also offset
+      } else {
+        // value [XXXX|YYYY] decodes to YYYY repeated XXXX times.
+        int runlength = value >> 4;
+        if (x + runlength > width) {
+          c.error = new Exception(
+              "decodeRunlength - destination size exceeded");
+          return false;
+        }
+        Arrays.fill(dst, dstPos + x, dstPos + x + runlength,
+            levels[value & 0x0F]);
+        x += runlength;
+      }
+    }
+    return true;
+  }
+
+  // rvp6Runlength sets the value of level based composite products to radar
+  // video processor values (rvp-6).
+  static float rvp6Runlength(Composite c, int value) {
+    if (value == 0) {
+      return Float.NaN;
+    }
+    value--;
+
+    if (value >= c.level.length) { // border markings
+      return Float.NaN;
+    }
+    return c.level[value];
+  }
+
+/*
 //parseRunlength parses the runlength encoded composite and writes into the
 //previously created PlainData field of the composite.
-public static void  parseRunlength(Composite c)  {
- /*for i := range c.PlainData {
+func (c *Composite) parseRunlength(reader *bufio.Reader) error {
+ for i := range c.PlainData {
    line, err := c.readLineRunlength(reader)
    if err != nil {
      return err
@@ -45,9 +289,9 @@ public static void  parseRunlength(Composite c)  {
    }
  }
 
- return nil*/
+ return nil
 }
-/*
+
 //readLineRunlength reads a line until newline (non inclusive) from the given reader.
 //This method is used to get a line of runlenth encoded data.
 func (c *Composite) readLineRunlength(rd *bufio.Reader) (line []byte, err error) {
@@ -23,6 +23,8 @@
  */
 package cs.fau.de.since.radolan;
 
+import cs.fau.de.since.radolan.Data.RowDecoder;
+
 /**
  * migrated to Java from https://gitlab.cs.fau.de/since/radolan/blob/master/singlebyte.go
  * @author wf
@@ -30,43 +32,52 @@ package cs.fau.de.since.radolan;
  */
 public class SingleByte {
 
+  // error code of a single byte for no-data - decoded to NaN
+  public static final int NO_DATA = 250;
+
   // parseSingleByte parses the single byte encoded composite as described in [1] and writes
-  // into the previously created PlainData field of the composite.
+  // into the previously created grid of the composite.
+  // The rows are decoded in bulk directly from the bytes of the composite
+  // using the lookup table of the 256 possible values
   public static void parseSingleByte(Composite c) {
-    int last = c.PlainData.length - 1;
-    for (int y = 0; y < c.PlainData.length; y++) {
-      byte[] yline = readRowSingleByte(c, y);
-      try {
-        int yt = last - y; // write vertically flipped
-        int yw = c.PlainData[last - y].length;
-        decodeSingleByte(c, yt, yw, yline);
-      } catch (Exception e) {
-        c.error = e;
-        break;
-      }
-    }
+    Data.getInstance().decodeRows(c, "decodeSingleByte", 1, rowDecoder(c));
   }
 
-  // readRowSingleByte reads a line until horizontal limit from the given reader
-  // This method is used to get a line of single byte encoded data.
-  private static byte[] readRowSingleByte(Composite c, int y) {
-    byte[] yrow = new byte[c.getDx()];
-    for (int x = 0; x < c.getDx(); x++) {
-      yrow[x] = c.getByte(x, y);
-    }
-    return yrow;
+  /**
+   * get the decoder for the rows of the given composite
+   * 
+   * @param c
+   *          - the composite with parsed header data
+   * @return - the decoder
+   */
+  public static RowDecoder rowDecoder(Composite c) {
+    c.singleByteTable = singleByteTable(c);
+    return SingleByte::decodeSingleByte;
   }
 
-  // decodeSingleByte decodes the source line and writes to the given destination.
-  private static void decodeSingleByte(Composite c, int y, int xw, byte[] line) throws Exception {
-    if (xw != line.length) {
-      throw new Exception(String.format(
-              "decodeSingleByte destination size %d and source size %d are not even or equal",
-              xw, line.length));
+  /**
+   * get the lookup table that maps each of the 256 possible bytes to its value
+   * for the precision and data unit of the given composite
+   * 
+   * @param c
+   *          - the composite
+   * @return - the table
+   */
+  public static float[] singleByteTable(Composite c) {
+    float[] table = new float[256];
+    for (int i = 0; i < table.length; i++) {
+      table[i] = rvp6SingleByte(c, (byte) i);
     }
-    for (int x = 0; x < xw; x++) {
-      float value = rvp6SingleByte(c, line[x]);
-      c.setValue(x, y, value);
+    return table;
+  }
+
+  // decodeSingleByte decodes the given number of bytes from the source and
+  // writes to the given destination using the lookup table of the composite.
+  public static void decodeSingleByte(Composite c, byte[] src, int srcPos,
+      float[] dst, int dstPos, int width) {
+    float[] table = c.singleByteTable;
+    for (int x = 0; x < width; x++) {
+      dst[dstPos + x] = table[src[srcPos + x] & 0xFF];
     }
   }
 
@@ -74,7 +85,8 @@ public class SingleByte {
   // composite products to radar video processor values (rvp-6). NaN may be returned
   // when the no-data flag is set.
   private static float rvp6SingleByte(Composite c, byte value) {
-    if (value == 250) {
+    // the byte is signed - compare its unsigned value
+    if ((value & 0xFF) == NO_DATA) {
       return Float.NaN;
     }
 
@@ -27,6 +27,10 @@ import com.bitplan.geo.DPoint;
 import com.bitplan.geo.GeoProjection;
 import com.bitplan.geo.IPoint;
 
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
 /**
  * migrated to Java from
  * https://gitlab.cs.fau.de/since/radolan/blob/master/translate.go
@@ -43,6 +47,8 @@ public class Translate {
 
   public static final double lambda0 = rad(junctionEast);
   public static final double phi0 = rad(junctionNorth);
+  // hoisted constant of polarStereoProjection
+  static final double sinPhi0 = Math.sin(phi0);
 
   enum GridType {
     unknownGrid, //
@@ -88,7 +94,19 @@ public class Translate {
    * @return - the projection
    */
   public static GridType detectGrid(GeoProjection pro) {
-    IPoint d = minRes(new IPoint(pro.getGridWidth(), pro.getGridHeight()));
+    return detectGrid(pro.getGridWidth(), pro.getGridHeight());
+  }
+
+  /**
+   * detectGrid identifies the used projection grid based on the given grid
+   * dimensions
+   * 
+   * @param width
+   * @param height
+   * @return - the projection
+   */
+  static GridType detectGrid(int width, int height) {
+    IPoint d = minRes(new IPoint(width, height));
     if (d.x == nationalGrid.x && d.y == nationalGrid.y) {
       return GridType.nationalGrid;
     }
@@ -264,6 +282,106 @@ public class Translate {
     return p;
   }
 
+  /**
+   * translate the given geographical coordinates to grid coordinates in one
+   * call - gives the same results as translate without allocating points
+   * 
+   * @param pro
+   *          - the projection
+   * @param north
+   *          - the latitudes
+   * @param east
+   *          - the longitudes
+   * @param x
+   *          - the x grid coordinates - NaN if no projection is available
+   * @param y
+   *          - the y grid coordinates - NaN if no projection is available
+   */
+  public static void translate(GeoProjection pro, double[] north,
+      double[] east, double[] x, double[] y) {
+    translate(pro, north, east, x, y, null, north.length);
+  }
+
+  /**
+   * translate the given geographical coordinates to grid coordinates in one
+   * call - gives the same results as translate without allocating points
+   * 
+   * @param pro
+   *          - the projection
+   * @param north
+   *          - the latitudes
+   * @param east
+   *          - the longitudes
+   * @param x
+   *          - the x grid coordinates - NaN if no projection is available
+   * @param y
+   *          - the y grid coordinates - NaN if no projection is available
+   * @param pool
+   *          - the pool to translate in parallel - null for sequential
+   * @param coordinatesPerTask
+   *          - the number of coordinates translated by a single parallel
+   *          task - see RadolanContext.getCoordinatesPerTask
+   */
+  public static void translate(GeoProjection pro, double[] north,
+      double[] east, double[] x, double[] y, ForkJoinPool pool,
+      int coordinatesPerTask) {
+    int n = north.length;
+    if (east.length != n || x.length < n || y.length < n) {
+      throw new IllegalArgumentException(String.format(
+          "translate: %d latitudes need %d longitudes and x, y of at least that size",
+          n, n));
+    }
+    if (!pro.isProjection()) {
+      Arrays.fill(x, 0, n, Double.NaN);
+      Arrays.fill(y, 0, n, Double.NaN);
+      return;
+    }
+    double offSetX = pro.getOffSetX();
+    double offSetY = pro.getOffSetY();
+    double resX = pro.getResX();
+    double resY = pro.getResY();
+    forEachRange(n, coordinatesPerTask, pool, (from, to) -> {
+      for (int i = from; i < to; i++) {
+        double lambda = rad(east[i]);
+        double phi = rad(north[i]);
+        double m = (1.0 + sinPhi0) / (1.0 + Math.sin(phi));
+        double rmc = earthRadius * m * Math.cos(phi);
+        x[i] = (rmc * Math.sin(lambda - lambda0) - offSetX) / resX;
+        y[i] = (rmc * Math.cos(lambda - lambda0) - offSetY) / resY;
+      }
+    });
+  }
+
+  /**
+   * a range of indices
+   */
+  @FunctionalInterface
+  interface Range {
+    void apply(int from, int to);
+  }
+
+  /**
+   * apply the given range function to the indices 0 to n (exclusive) in
+   * ranges of at most size indices
+   * 
+   * @param n
+   * @param size
+   * @param pool
+   *          - the pool to work in parallel - null for sequential
+   * @param range
+   */
+  static void forEachRange(int n, int size, ForkJoinPool pool, Range range) {
+    if (pool == null || n <= size) {
+      range.apply(0, n);
+      return;
+    }
+    int tasks = (n + size - 1) / size;
+    // a parallel stream started in a pool runs in that pool
+    pool.submit(() -> IntStream.range(0, tasks).parallel()
+        .forEach(t -> range.apply(t * size, Math.min(n, (t + 1) * size))))
+        .join();
+  }
+
   /**
    * convert the given north - latitude /east -longitude values to a cartesian
    * coordinate
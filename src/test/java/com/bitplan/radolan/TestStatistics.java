@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package com.bitplan.radolan;
+
+import cs.fau.de.since.radolan.Composite;
+import cs.fau.de.since.radolan.RadolanContext;
+import org.junit.Test;
+
+import java.io.FileInputStream;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * test the statistics
+ * 
+ * @author wf
+ *
+ */
+public class TestStatistics extends Testing {
+
+  /**
+   * test the base values and the variance
+   */
+  @Test
+  public void testStatistics() {
+    Statistics statistics = new Statistics();
+    statistics.add(new float[] { 0, 2, 4, 4, 4, 5, 5, 7, 9, Float.NaN }, 1,
+        9);
+    assertEquals(9, statistics.getTotal());
+    assertEquals(8, statistics.getCount());
+    assertEquals(1, statistics.getCountNaN());
+    assertEquals(2, statistics.getMin(), 0.0);
+    assertEquals(9, statistics.getMax(), 0.0);
+    assertEquals(5, statistics.getAverage(), 1E-12);
+    assertEquals(4, statistics.getVariance(), 1E-12);
+    assertEquals(2, statistics.getStandardDeviation(), 1E-12);
+  }
+
+  /**
+   * a small variance of large values must not be lost by cancellation
+   */
+  @Test
+  public void testVarianceOfLargeValues() {
+    Statistics sequential = new Statistics();
+    Statistics lower = new Statistics();
+    Statistics upper = new Statistics();
+    for (int i = 0; i < 1000; i++) {
+      float value = 1E7f + i % 2;
+      sequential.add(value);
+      (i < 300 ? lower : upper).add(value);
+    }
+    assertEquals(0.25, sequential.getVariance(), 1E-9);
+    assertEquals(0.25, lower.merge(upper).getVariance(), 1E-9);
+  }
+
+  /**
+   * merged and collected statistics need to give the same values as the
+   * sequentially added ones
+   */
+  @Test
+  public void testMergeAndCollect() {
+    Statistics sequential = new Statistics();
+    Statistics lower = new Statistics();
+    Statistics upper = new Statistics();
+    for (int i = 0; i < 1000; i++) {
+      float value = i % 17 == 0 ? Float.NaN : i * 0.5f - 100;
+      sequential.add(value);
+      (i < 300 ? lower : upper).add(value);
+    }
+    Statistics merged = lower.merge(upper);
+    Statistics collected = IntStream.range(0, 1000).parallel()
+        .mapToObj(i -> i % 17 == 0 ? Float.NaN : i * 0.5f - 100)
+        .collect(Statistics.collector());
+    for (Statistics statistics : new Statistics[] { merged, collected }) {
+      assertEquals(sequential.getTotal(), statistics.getTotal());
+      assertEquals(sequential.getCountNaN(), statistics.getCountNaN());
+      assertEquals(sequential.getMin(), statistics.getMin(), 0.0);
+      assertEquals(sequential.getMax(), statistics.getMax(), 0.0);
+      assertEquals(sequential.getAverage(), statistics.getAverage(), 1E-9);
+      assertEquals(sequential.getVariance(), statistics.getVariance(), 1E-6);
+    }
+  }
+
+  /**
+   * statistics may be disabled while parsing - the values can still be
+   * collected later
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testDisabledStatistics() throws Throwable {
+    String sf = "src/test/data/history/raa01-sf_10000-1805301650-dwd---bin.gz";
+    Composite reference = new Composite(new FileInputStream(sf));
+    Composite c = new Composite(new FileInputStream(sf),
+        RadolanContext.builder().collectStatistics(false).build());
+    assertEquals(0, c.getStatistics().getTotal());
+    Grid grid = c.getGrid();
+    Statistics collected = IntStream.range(0, grid.getHeight()).boxed()
+        .flatMap(y -> IntStream.range(0, grid.getWidth())
+            .mapToObj(x -> grid.getValue(x, y)))
+        .collect(Statistics.collector());
+    assertEquals(reference.getStatistics().toString(), collected.toString());
+  }
+}
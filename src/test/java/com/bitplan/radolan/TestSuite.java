@@ -23,15 +23,28 @@
  */
 package com.bitplan.radolan;
 
+import cs.fau.de.since.radolan.TestCompositeParser;
 import cs.fau.de.since.radolan.TestConversion;
+import cs.fau.de.since.radolan.TestGrid;
 import cs.fau.de.since.radolan.TestHeader;
+import cs.fau.de.since.radolan.TestLittleEndian;
+import cs.fau.de.since.radolan.TestPointExtractor;
+import cs.fau.de.since.radolan.TestRadolanContext;
+import cs.fau.de.since.radolan.TestRegion;
+import cs.fau.de.since.radolan.TestRunLength;
+import cs.fau.de.since.radolan.TestSingleByte;
+import cs.fau.de.since.radolan.TestStreaming;
 import cs.fau.de.since.radolan.TestTranslate;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ TestKnownUrls.class, TestTranslate.class, TestConversion.class,
-        TestData.class, TestCache.class, TestHeader.class })
+        TestData.class, TestCache.class, TestHeader.class, TestLittleEndian.class,
+        TestSingleByte.class, TestGrid.class,
+        TestStatistics.class, TestRunLength.class, TestStreaming.class,
+        TestRadolanContext.class, TestCompositeParser.class,
+        TestPointExtractor.class, TestRegion.class })
 /**
  * TestSuite
  * 
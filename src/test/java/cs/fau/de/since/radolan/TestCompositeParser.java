@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.FloatGrid;
+import com.bitplan.radolan.Testing;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * test parsing composites with recycled buffers
+ * 
+ * @author wf
+ *
+ */
+public class TestCompositeParser extends Testing {
+
+  /**
+   * parsing the different encodings one after the other with the same parser
+   * needs to give the same result as loading each composite
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testCompositeParser() throws Throwable {
+    byte[][] inputs = {
+        Files.readAllBytes(
+            new File(TestLittleEndian.SF_HISTORY + ".gz").toPath()),
+        Files.readAllBytes(new File(TestStreaming.WX).toPath()),
+        TestRunLength.getPG(
+            new int[] { 0x10, 16, (2 << 4) | 1, (1 << 4) | 0, (3 << 4) | 7 },
+            new int[] { 0x11, 18, (4 << 4) | 6 }) };
+    try (CompositeParser parser = new CompositeParser()) {
+      for (int round = 0; round < 2; round++) {
+        for (byte[] input : inputs) {
+          Composite expected = new Composite(new ByteArrayInputStream(input));
+          Composite c = parser.parse(new ByteArrayInputStream(input));
+          assertEquals(expected.header, c.header);
+          assertEquals(expected.getProduct(), c.getProduct());
+          assertEquals(expected.getCaptureTime(), c.getCaptureTime());
+          TestGrid.assertSameValues(expected, c);
+          assertEquals(expected.getStatistics().toString(),
+              c.getStatistics().toString());
+          assertEquals(expected.getDz(), c.getDz());
+          assertEquals(expected.getOffSetX(), c.getOffSetX(), 0.0);
+          assertEquals(expected.getOffSetY(), c.getOffSetY(), 0.0);
+        }
+      }
+    }
+  }
+
+  /**
+   * gzip the given part of the given bytes as a single member
+   * 
+   * @param bytes
+   * @param from
+   * @param to
+   * @return - the gzip member
+   * @throws Exception
+   */
+  public static byte[] gzip(byte[] bytes, int from, int to) throws Exception {
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bout)) {
+      gzip.write(bytes, from, to - from);
+    }
+    return bout.toByteArray();
+  }
+
+  /**
+   * concatenated gzip members need to be unzipped completely as
+   * GZIPInputStream does
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testMultiMemberGzip() throws Throwable {
+    byte[] wx = Files.readAllBytes(new File(TestStreaming.WX).toPath());
+    byte[] first = gzip(wx, 0, wx.length / 2);
+    byte[] second = gzip(wx, wx.length / 2, wx.length);
+    byte[] members = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, members, first.length, second.length);
+    Composite expected = TestSingleByte.getWXComposite();
+    Composite gzipped = new Composite(new ByteArrayInputStream(members));
+    TestGrid.assertSameValues(expected, gzipped);
+    try (CompositeParser parser = new CompositeParser()) {
+      Composite c = parser.parse(new ByteArrayInputStream(members));
+      assertNull(c.error);
+      TestGrid.assertSameValues(expected, c);
+    }
+  }
+
+  /**
+   * decoding into a grid supplied by the caller
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testCallerGrid() throws Throwable {
+    File wx = new File(TestStreaming.WX);
+    Composite expected = TestSingleByte.getWXComposite();
+    FloatGrid grid = new FloatGrid(expected.getPx(), expected.getPy());
+    try (CompositeParser parser = new CompositeParser()) {
+      for (int round = 0; round < 2; round++) {
+        Composite c = parser.parse(wx, grid);
+        assertSame(grid, c.getGrid());
+        TestGrid.assertSameValues(expected, c);
+      }
+      try {
+        parser.parse(wx, new FloatGrid(expected.getPx(), expected.getPy() - 1));
+        fail("a grid of the wrong size should be rejected");
+      } catch (Exception e) {
+        assertEquals("grid of 900 x 1099 does not fit composite of 900 x 1100",
+            e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * truncated and corrupt input needs to be reported
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testInvalidInput() throws Throwable {
+    try (CompositeParser parser = new CompositeParser()) {
+      byte[] wx = Files.readAllBytes(new File(TestStreaming.WX).toPath());
+      // parse the complete file first so that the buffer holds stale bytes
+      assertNull(parser.parse(new ByteArrayInputStream(wx)).error);
+      try {
+        parser.parse(
+            new ByteArrayInputStream(Arrays.copyOf(wx, wx.length - 1)));
+        fail("truncated data should throw an exception");
+      } catch (Exception e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("too short"));
+      }
+      byte[] sf = Files
+          .readAllBytes(new File(TestLittleEndian.SF_HISTORY + ".gz").toPath());
+      sf[sf.length - 5]++; // size in the gzip trailer
+      try {
+        parser.parse(new ByteArrayInputStream(sf));
+        fail("corrupt gzip data should throw an exception");
+      } catch (Exception e) {
+        assertEquals("Corrupt GZIP trailer", e.getMessage());
+      }
+      // lazy grids are rejected before the callback is called
+      List<Composite> initialized = new ArrayList<Composite>();
+      RadolanContext lazy = RadolanContext.builder()
+          .gridFactory(GridFactory.LAZY).postInit(initialized::add).build();
+      try (CompositeParser lazyParser = new CompositeParser(lazy)) {
+        lazyParser.parse(new ByteArrayInputStream(wx));
+        fail("lazy grids should be rejected");
+      } catch (Exception e) {
+        assertTrue(e.getMessage(), e.getMessage().contains("lazy"));
+      }
+      assertTrue(initialized.isEmpty());
+    }
+  }
+}
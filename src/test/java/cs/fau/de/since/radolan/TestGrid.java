@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.BufferGrid;
+import com.bitplan.radolan.FloatGrid;
+import com.bitplan.radolan.Grid;
+import com.bitplan.radolan.GridView;
+import com.bitplan.radolan.PlainGrid;
+import com.bitplan.radolan.QuantizedGrid;
+import com.bitplan.radolan.Testing;
+import cs.fau.de.since.radolan.Catalog.Unit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test the grid backends
+ * 
+ * @author wf
+ *
+ */
+public class TestGrid extends Testing {
+  // holds the files of the memory mapped grids - deleted after each test
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  /**
+   * get the SF composite from the test data with the given grid factory
+   * 
+   * @param gridFactory
+   * @return the composite
+   * @throws Throwable
+   */
+  public static Composite getSFComposite(GridFactory gridFactory)
+      throws Throwable {
+    File sfFile = new File(TestLittleEndian.SF_HISTORY + ".gz");
+    assertTrue(sfFile.exists());
+    return new Composite(new FileInputStream(sfFile), gridFactory);
+  }
+
+  /**
+   * check that the given composite has the same values as the expected one
+   * 
+   * @param expected
+   * @param c
+   */
+  public static void assertSameValues(Composite expected, Composite c) {
+    assertNull(c.error);
+    assertEquals(expected.getPx(), c.getPx());
+    assertEquals(expected.getPy(), c.getPy());
+    for (int y = 0; y < c.getPy(); y++) {
+      for (int x = 0; x < c.getPx(); x++) {
+        assertEquals(expected.getValue(x, y), c.getValue(x, y), 0.0);
+      }
+    }
+    assertEquals(expected.getStatistics().getTotal(),
+        c.getStatistics().getTotal());
+  }
+
+  /**
+   * the url and input stream constructors keep the PlainData rows as their
+   * grid - other grids have no PlainData
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testPlainData() throws Throwable {
+    Composite plain = TestLittleEndian.getSFComposite();
+    assertTrue(plain.getGrid() instanceof PlainGrid);
+    assertEquals(plain.getPy(), plain.PlainData.length);
+    assertSame(plain.PlainData, plain.getPlainData());
+    Composite heap = getSFComposite(GridFactory.HEAP);
+    assertNull(heap.PlainData);
+    assertSameValues(heap, plain);
+    // the rows are the grid
+    plain.PlainData[3][4] = 47.11f;
+    assertEquals(47.11f, plain.getValue(4, 3), 0.0);
+    float[][] rows = new float[2][3];
+    plain.setPlainData(rows);
+    assertSame(rows, plain.PlainData);
+    plain.setValue(2, 1, 42f);
+    assertEquals(42f, rows[1][2], 0.0);
+  }
+
+  /**
+   * test the row access of the buffer grid
+   */
+  @Test
+  public void testBufferGrid() {
+    BufferGrid grid = BufferGrid.allocateDirect(3, 2);
+    assertTrue(grid.getBuffer().isDirect());
+    grid.setRow(1, new float[] { 0, 1, 2, 3 }, 1);
+    grid.setValue(0, 0, Float.NaN);
+    float[] row = new float[3];
+    grid.getRow(1, row, 0);
+    assertEquals(1, row[0], 0.0);
+    assertEquals(3, row[2], 0.0);
+    assertEquals(2, grid.getValue(1, 1), 0.0);
+    assertTrue(Float.isNaN(grid.getValue(0, 0)));
+    // the byte order of the given buffer is left unchanged
+    ByteBuffer buffer = ByteBuffer.allocate(6 * Float.BYTES)
+        .order(ByteOrder.BIG_ENDIAN);
+    BufferGrid wrapped = new BufferGrid(3, 2, buffer);
+    assertSame(ByteOrder.BIG_ENDIAN, buffer.order());
+    assertSame(ByteOrder.nativeOrder(), wrapped.getBuffer().order());
+    wrapped.setValue(1, 1, 42f);
+    assertEquals(42f, wrapped.getValue(1, 1), 0.0);
+  }
+
+  /**
+   * composites with off heap grids need to give the same values as the
+   * default heap grid
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testGridFactories() throws Throwable {
+    Composite heap = getSFComposite(GridFactory.HEAP);
+    assertNull(heap.error);
+    assertTrue(heap.getGrid() instanceof FloatGrid);
+
+    Composite direct = getSFComposite(GridFactory.DIRECT);
+    assertTrue(direct.getGrid() instanceof BufferGrid);
+    assertSameValues(heap, direct);
+
+    File directory = temporaryFolder.newFolder("radolan");
+    Composite mapped = getSFComposite(GridFactory.mapped(directory));
+    assertSameValues(heap, mapped);
+    File gridFile = new File(directory, "SF-1805301650.grid");
+    assertTrue(gridFile.exists());
+    assertEquals(heap.getPx() * heap.getPy() * Float.BYTES,
+        gridFile.length());
+    ((BufferGrid) mapped.getGrid()).force();
+
+    // a second mapping of the same file sees the decoded values
+    Grid shared = BufferGrid.map(gridFile, heap.getPx(), heap.getPy());
+    for (int y = 0; y < heap.getPy(); y++) {
+      for (int x = 0; x < heap.getPx(); x++) {
+        assertEquals(heap.getValue(x, y), shared.getValue(x, y), 0.0);
+      }
+    }
+  }
+
+  /**
+   * quantized grids need to give the same values as the default heap grid
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testQuantizedGrid() throws Throwable {
+    Composite sf = getSFComposite(GridFactory.QUANTIZED);
+    QuantizedGrid sfGrid = (QuantizedGrid) sf.getGrid();
+    assertFalse(sfGrid.isSingleByte());
+    assertSameValues(getSFComposite(GridFactory.HEAP), sf);
+
+    File wxFile = new File(
+        "src/test/data/wx/raa01-wx_10000-2007252215-dwd---bin");
+    Composite wx = new Composite(new FileInputStream(wxFile),
+        GridFactory.QUANTIZED);
+    QuantizedGrid wxGrid = (QuantizedGrid) wx.getGrid();
+    assertTrue(wxGrid.isSingleByte());
+    assertEquals(-32.5f, wxGrid.getOffset(), 0.0);
+    Composite expected = TestSingleByte.getWXComposite();
+    assertSameValues(expected, wx);
+    // no-data is kept as its raw code
+    int noData = 0;
+    for (int y = 0; y < wx.getPy(); y++) {
+      for (int x = 0; x < wx.getPx(); x++) {
+        if (Float.isNaN(wx.getValue(x, y)))
+          noData++;
+      }
+    }
+    assertTrue(noData > 0);
+    wxGrid.setValue(0, 0, Float.NaN);
+    assertTrue(Float.isNaN(wxGrid.getValue(0, 0)));
+    assertEquals(QuantizedGrid.NO_DATA_BYTE, wxGrid.encode(Float.NaN));
+  }
+
+  /**
+   * every little endian encoded dBZ value needs to survive the quantization
+   */
+  @Test
+  public void testQuantizedLittleEndian() {
+    double precisionFactor = 0.1;
+    QuantizedGrid grid = new QuantizedGrid(256, 256, false,
+        precisionFactor / 2, -32.5f);
+    for (int i = 0; i < 1 << 16; i++) {
+      float value = LittleEndian.rvp6LittleEndian(precisionFactor,
+          Unit.Unit_dBZ, (byte) i, (byte) (i >> 8));
+      grid.setValue(i & 0xFF, i >> 8, value);
+      assertEquals(value, grid.getValue(i & 0xFF, i >> 8), 0.0);
+    }
+  }
+
+  /**
+   * lazy grids decode only the rows that are accessed
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testLazyGrid() throws Throwable {
+    Composite heap = getSFComposite(GridFactory.HEAP);
+    Composite lazy = getSFComposite(GridFactory.LAZY);
+    assertNull(lazy.error);
+    LazyGrid grid = (LazyGrid) lazy.getGrid();
+    assertEquals(0, grid.getDecodedRows());
+    assertEquals(0, lazy.getStatistics().getTotal());
+    assertEquals(heap.getValue(450, 450), lazy.getValue(450, 450), 0.0);
+    assertEquals(heap.getValue(10, 450), lazy.getValue(10, 450), 0.0);
+    assertEquals(heap.getValue(10, 0), lazy.getValue(10, 0), 0.0);
+    assertEquals(2, grid.getDecodedRows());
+
+    // concurrent access needs to give the same rows
+    Composite concurrent = getSFComposite(GridFactory.LAZY);
+    IntStream.range(0, concurrent.getPy() * 4).parallel().forEach(i -> {
+      int y = i % concurrent.getPy();
+      for (int x = 0; x < concurrent.getPx(); x++) {
+        assertEquals(heap.getValue(x, y), concurrent.getValue(x, y), 0.0);
+      }
+    });
+    assertEquals(concurrent.getPy(),
+        ((LazyGrid) concurrent.getGrid()).getDecodedRows());
+  }
+
+  /**
+   * get a composite with the given plain data dimensions and layer height
+   * with the value 1000 * y + x at each grid position
+   * 
+   * @param px
+   * @param py
+   * @param dy
+   * @return - the composite with arranged data
+   */
+  public Composite getLayeredComposite(int px, int py, int dy) {
+    Composite c = new Composite("PZ", px, dy);
+    c.setPx(px);
+    c.setPy(py);
+    FloatGrid grid = new FloatGrid(px, py);
+    for (int y = 0; y < py; y++) {
+      for (int x = 0; x < px; x++) {
+        grid.setValue(x, y, 1000 * y + x);
+      }
+    }
+    c.setGrid(grid);
+    Data.getInstance().arrangeData(c);
+    return c;
+  }
+
+  /**
+   * test that layers are views on the plain data
+   */
+  @Test
+  public void testLayers() {
+    Composite c = getLayeredComposite(20, 36, 12);
+    assertEquals(3, c.getDz());
+    for (int z = 0; z < 3; z++) {
+      Grid layer = c.getLayer(z);
+      assertTrue(layer instanceof GridView);
+      assertEquals(12, layer.getHeight());
+      assertEquals(20, layer.getWidth());
+      assertEquals(1000 * (12 * z + 5) + 7, c.getValue(7, 5, z), 0.0);
+    }
+    assertEquals(c.getValue(3, 4, 0), c.getValue(3, 4), 0.0);
+    assertTrue(Float.isNaN(c.getValue(3, 12, 0)));
+    assertTrue(Float.isNaN(c.getValue(3, 4, 3)));
+    // no copy - changes of the plain data are visible in the layer
+    c.getGrid().setValue(2, 25, -1);
+    assertEquals(-1, c.getValue(2, 1, 2), 0.0);
+
+    // only the bottom most part is used if the height is no multiple
+    Composite stripped = getLayeredComposite(20, 30, 12);
+    assertEquals(1, stripped.getDz());
+    assertEquals(1000 * 18 + 7, stripped.getValue(7, 0), 0.0);
+    assertEquals(1000 * 29, stripped.getValue(0, 11), 0.0);
+  }
+}
@@ -27,13 +27,23 @@ import com.bitplan.radolan.Testing;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * migrated to Java from
@@ -194,4 +204,131 @@ public class TestHeader extends Testing {
     }
   }
 
+  /**
+   * parse the header of the given bytes with the section map and the scanner
+   * and check that both give the same result
+   * 
+   * @param bytes
+   * @throws Exception
+   */
+  public void checkScanner(byte[] bytes) throws Exception {
+    Composite sections = new Composite(
+        RadolanContext.builder().headerScanner(false).build());
+    Composite scanned = new Composite();
+    sections.read(new ByteArrayInputStream(bytes));
+    scanned.read(new ByteArrayInputStream(bytes));
+    assertEquals(sections.getProduct(), scanned.getProduct());
+    assertEquals(sections.getDataUnit(), scanned.getDataUnit());
+    assertEquals(sections.getDataLength(), scanned.getDataLength());
+    assertEquals(sections.CaptureTime, scanned.CaptureTime);
+    assertEquals(sections.getForecastTime(), scanned.getForecastTime());
+    assertEquals(sections.Interval, scanned.Interval);
+    assertEquals(sections.getPx(), scanned.getPx());
+    assertEquals(sections.getPy(), scanned.getPy());
+    assertEquals(sections.getDx(), scanned.getDx());
+    assertEquals(sections.getDy(), scanned.getDy());
+    assertEquals(sections.getResX(), scanned.getResX(), 0.0);
+    assertEquals(sections.getResY(), scanned.getResY(), 0.0);
+    assertEquals(sections.getPrecision(), scanned.getPrecision());
+    assertArrayEquals(sections.level, scanned.level, 0.0f);
+  }
+
+  /**
+   * the single pass scanner needs to give the same result as the section map
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testHeaderScanner() throws Exception {
+    String[] headers = {
+        "PG262115100000616BY22205LV 6  1.0 19.0 28.0 37.0 46.0 55.0CS0MX 0MS "
+            + "88<boo,ros,emd,hnr,umd,pro,ess,fld,drs,neu,nhb,oft,eis,tur,isn,fbg,mem> "
+            + "are used, BG460460\u0003binarycontent",
+        "FZ282105100000716BY 405160VS 3SW   2.13.1PR E-01INT   5GP 450x 450VV 100MF "
+            + "00000002MS 66<boo,ros,emd,hnr,umd,pro,ess,drs,neu,nhb,oft,eis,tur,isn,fbg,mem>"
+            + "\u0003binarycontent",
+        // dimensions from the catalog
+        "PF262115100000616LV12-31.5-24.5-17.5-10.5 -5.5 -1.0  1.0  5.5 10.5 17.5 24.5 31.5"
+            + "BY 1000\u0003binarycontent",
+        // interval in tens of minutes
+        "W1262115100000616BY 1000INT 6GP 900x 900\u0003binarycontent" };
+    for (String header : headers) {
+      checkScanner(header.getBytes(StandardCharsets.ISO_8859_1));
+    }
+    for (String path : new String[] { TestStreaming.WX,
+        TestLittleEndian.SF_HISTORY + ".gz" }) {
+      checkScanner(Files.readAllBytes(new File(path).toPath()));
+    }
+  }
+
+  /**
+   * the scanner needs to report the same errors as the section map
+   */
+  @Test
+  public void testHeaderScannerErrors() {
+    String[] headers = {
+        "PG262115100000616LV 6  1.0 19.0 28.0 37.0 46.0 55.0\u0003",
+        "XY262115100000616BY 1000INT 5 MS 10\u0003",
+        "PG262115100000616BY 1000GP 450x 450LV 6  1.0 19.0\u0003" };
+    String[] expected = { "parseHeader: missing dataLength/BY ######",
+        "parseHeader: no dimension information available",
+        "parseHeader: invalid level format:  6  1.0 19.0\u0003" };
+    for (int i = 0; i < headers.length; i++) {
+      byte[] bytes = headers[i].getBytes(StandardCharsets.ISO_8859_1);
+      for (boolean useScanner : new boolean[] { false, true }) {
+        try {
+          new Composite(
+              RadolanContext.builder().headerScanner(useScanner).build())
+                  .read(new ByteArrayInputStream(bytes));
+          fail("there should be an exception for " + headers[i]);
+        } catch (Exception e) {
+          assertEquals(expected[i], e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * the header only reader needs to give the same header data as the
+   * composite and must not read the whole stream
+   * 
+   * @throws Exception
+   */
+  @Test
+  public void testRadolanHeader() throws Exception {
+    for (String path : new String[] { TestStreaming.WX,
+        TestLittleEndian.SF_HISTORY + ".gz" }) {
+      File file = new File(path);
+      Composite c = new Composite();
+      c.read(new FileInputStream(file));
+      RadolanHeader header = RadolanHeader.read(file);
+      assertEquals(c.getProduct(), header.getProduct());
+      assertEquals(c.getDataUnit(), header.getDataUnit());
+      assertEquals(c.getCaptureTime(), header.getCaptureTime());
+      assertEquals(c.getForecastTime(), header.getForecastTime());
+      assertEquals(c.getInterval(), header.getInterval());
+      assertEquals(c.getDx(), header.getDx());
+      assertEquals(c.getDy(), header.getDy());
+      assertEquals(c.getPx(), header.getPx());
+      assertEquals(c.getPy(), header.getPy());
+      assertEquals(c.getDataOffset(), header.getHeaderLength());
+      assertEquals(c.getDataLength(), header.getDataLength());
+      assertEquals(c.getPrecision(), header.getPrecision());
+
+      // count the bytes that are read from the (zipped) file
+      AtomicLong count = new AtomicLong();
+      try (InputStream in = new FilterInputStream(new FileInputStream(file)) {
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+          int read = super.read(b, off, len);
+          count.addAndGet(Math.max(read, 0));
+          return read;
+        }
+      }) {
+        RadolanHeader.read(in);
+      }
+      assertTrue(count.get() < file.length() / 10);
+    }
+  }
+
 }
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.FloatGrid;
+import com.bitplan.radolan.Testing;
+import cs.fau.de.since.radolan.Catalog.Unit;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test the little endian decoding
+ * 
+ * @author wf
+ *
+ */
+public class TestLittleEndian extends Testing {
+  public static final String SF_HISTORY = "src/test/data/history/raa01-sf_10000-1805301650-dwd---bin";
+
+  /**
+   * get the SF composite from the test data
+   * 
+   * @return the composite
+   * @throws Throwable
+   */
+  public static Composite getSFComposite() throws Throwable {
+    File sfFile = new File(SF_HISTORY + ".gz");
+    assertTrue(sfFile.exists());
+    return new Composite(new FileInputStream(sfFile));
+  }
+
+  /**
+   * check the decoded values against the reference values
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testReferenceValues() throws Throwable {
+    Composite c = getSFComposite();
+    assertNull(c.error);
+    GZIPInputStream gzipIn = new GZIPInputStream(
+        new FileInputStream(SF_HISTORY + ".txt.gz"));
+    BufferedReader reader = new BufferedReader(new InputStreamReader(gzipIn));
+    String line;
+    int count = 0;
+    while ((line = reader.readLine()) != null) {
+      String[] fields = line.split(";");
+      int y = Integer.parseInt(fields[0]);
+      int x = Integer.parseInt(fields[1]);
+      float expected = fields[2].equalsIgnoreCase("NaN") ? Float.NaN
+          : Float.parseFloat(fields[2]);
+      assertEquals(String.format("value at %d,%d", x, y), expected,
+          c.getValue(x, y), 0.0001);
+      count++;
+    }
+    reader.close();
+    assertEquals(c.getDx() * c.getDy(), count);
+  }
+
+  /**
+   * the lookup table needs to give the same values as the conversion of each
+   * single tuple and is shared by composites of the same precision and unit
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testLookupTable() throws Throwable {
+    Composite c = getSFComposite();
+    float[] table = LittleEndian.littleEndianTable(c);
+    assertEquals(1 << 16, table.length);
+    for (int low = 0; low < 256; low++) {
+      for (int high = 0; high < 256; high++) {
+        float expected = LittleEndian.rvp6LittleEndian(c, (byte) low,
+            (byte) high);
+        assertEquals(expected, table[high << 8 | low], 0.0);
+      }
+    }
+    assertSame(table, getSFComposite().littleEndianTable);
+    Composite fz = new Composite();
+    fz.setPrecision(c.getPrecision());
+    fz.setDataUnit(Unit.Unit_dBZ);
+    assertNotSame(table, LittleEndian.littleEndianTable(fz));
+  }
+
+  /**
+   * the bulk decoding needs to give the same result as the row by row access
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testBulkDecoding() throws Throwable {
+    Composite c = getSFComposite();
+    Composite rowByRow = new Composite();
+    rowByRow.read(new FileInputStream(SF_HISTORY + ".gz"));
+    rowByRow.setGrid(new FloatGrid(rowByRow.getPx(), rowByRow.getPy()));
+    int last = rowByRow.getPy() - 1;
+    for (int y = 0; y <= last; y++) {
+      byte[] line = LittleEndian.readRowLittleEndian(rowByRow, y);
+      LittleEndian.decodeYLineLittleEndian(rowByRow, last - y,
+          rowByRow.getPx(), line);
+    }
+    for (int y = 0; y <= last; y++) {
+      for (int x = 0; x < c.getPx(); x++) {
+        assertEquals(rowByRow.getValue(x, y), c.getValue(x, y), 0.0);
+      }
+    }
+    assertEquals(rowByRow.getStatistics().toString(),
+        c.getStatistics().toString());
+  }
+
+  /**
+   * the parallel decoding needs to give the same result as the sequential
+   * one
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testParallelDecoding() throws Throwable {
+    Composite c = getSFComposite();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    Composite parallel;
+    try {
+      parallel = new Composite(new FileInputStream(SF_HISTORY + ".gz"),
+          RadolanContext.builder().decodePool(pool).rowsPerTask(7).build());
+    } finally {
+      pool.shutdown();
+    }
+    for (int y = 0; y < c.getPy(); y++) {
+      for (int x = 0; x < c.getPx(); x++) {
+        assertEquals(c.getValue(x, y), parallel.getValue(x, y), 0.0);
+      }
+    }
+    // toString rounds the sum which depends on the order of addition
+    assertEquals(c.getStatistics().toString(),
+        parallel.getStatistics().toString());
+  }
+
+  /**
+   * the branch free kernel needs to give the same values as the conversion
+   * of each single tuple
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testBranchFreeDecoding() throws Throwable {
+    byte[] tuples = new byte[2 << 16];
+    for (int i = 0; i < 1 << 16; i++) {
+      tuples[2 * i] = (byte) i;
+      tuples[2 * i + 1] = (byte) (i >> 8);
+    }
+    float[] values = new float[1 << 16];
+    for (Unit unit : new Unit[] { Unit.Unit_dBZ, Unit.Unit_mm }) {
+      for (double precisionFactor : new double[] { 1, 0.1, 0.01 }) {
+        Composite c = new Composite();
+        c.setDataUnit(unit);
+        c.setPrecisionFactor(precisionFactor);
+        LittleEndian.decodeLittleEndianBranchFree(c, tuples, 0, values, 0,
+            values.length);
+        for (int i = 0; i < values.length; i++) {
+          float expected = LittleEndian.rvp6LittleEndian(precisionFactor,
+              unit, (byte) i, (byte) (i >> 8));
+          assertEquals(expected, values[i], 0.0);
+        }
+      }
+    }
+    Composite c = getSFComposite();
+    Composite branchFree = new Composite(
+        new FileInputStream(SF_HISTORY + ".gz"),
+        RadolanContext.builder().littleEndianTable(false).build());
+    for (int y = 0; y < c.getPy(); y++) {
+      for (int x = 0; x < c.getPx(); x++) {
+        assertEquals(c.getValue(x, y), branchFree.getValue(x, y), 0.0);
+      }
+    }
+    assertEquals(c.getStatistics().toString(),
+        branchFree.getStatistics().toString());
+  }
+}
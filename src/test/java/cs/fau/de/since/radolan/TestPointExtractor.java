@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.geo.DPoint;
+import com.bitplan.radolan.Testing;
+import cs.fau.de.since.radolan.Composite.Retention;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * test extracting the time series of points from many composites
+ * 
+ * @author wf
+ *
+ */
+public class TestPointExtractor extends Testing {
+  public static final List<File> FILES = Arrays.asList(
+      new File("src/test/data/wx/raa01-wx_10000-2007240725-dwd---bin"),
+      new File("src/test/data/wx/raa01-wx_10000-2007240915-dwd---bin"),
+      new File(TestLittleEndian.SF_HISTORY + ".gz"),
+      new File(TestStreaming.WX));
+
+  /**
+   * get a lattice of coordinates covering germany and its surroundings
+   * 
+   * @return - the latitudes and longitudes
+   */
+  public static double[][] getCoordinates() {
+    int n = 0;
+    double[][] coords = new double[2][21 * 25 + 1];
+    for (double north = 45; north <= 57; north += 0.6) {
+      for (double east = 1; east <= 19; east += 0.75) {
+        coords[0][n] = north;
+        coords[1][n++] = east;
+      }
+    }
+    // far outside of each grid
+    coords[0][n] = -30;
+    coords[1][n++] = 120;
+    coords[0] = Arrays.copyOf(coords[0], n);
+    coords[1] = Arrays.copyOf(coords[1], n);
+    return coords;
+  }
+
+  /**
+   * extracting from files needs to give the same values as getValueAtCoord
+   * of each composite - sequential and parallel
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testExtractFiles() throws Throwable {
+    double[][] coords = getCoordinates();
+    PointExtractor extractor = new PointExtractor(coords[0], coords[1]);
+    assertEquals(coords[0].length, extractor.getPointCount());
+    float[][] series = extractor.extractFiles(FILES, null);
+    assertEquals(coords[0].length, series.length);
+    int inside = 0;
+    for (int time = 0; time < FILES.size(); time++) {
+      Composite c = new Composite(new FileInputStream(FILES.get(time)));
+      for (int p = 0; p < coords[0].length; p++) {
+        float expected = c
+            .getValueAtCoord(new DPoint(coords[0][p], coords[1][p]));
+        assertEquals("point " + p + " time " + time, expected,
+            series[p][time], 0.0);
+        if (!Float.isNaN(expected))
+          inside++;
+      }
+      // the point far outside
+      assertTrue(Float.isNaN(series[coords[0].length - 1][time]));
+    }
+    assertTrue(inside > 0);
+    float[][] parallel = new PointExtractor(
+        RadolanContext.builder().filesPerTask(1).build(), coords[0],
+        coords[1]).extractFiles(FILES, ForkJoinPool.commonPool());
+    for (int p = 0; p < series.length; p++) {
+      assertArrayEquals(series[p], parallel[p], 0.0f);
+    }
+  }
+
+  /**
+   * decoding single values of all encodings needs to give the values of the
+   * grid
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testDecodeValues() throws Throwable {
+    byte[][] inputs = { TestRunLength.getPG(
+        new int[] { 0x10, 16, (2 << 4) | 1, (1 << 4) | 0, (3 << 4) | 7 },
+        new int[] { 0x11, 18, (4 << 4) | 6 },
+        new int[] { 0x12, 255, 17, (3 << 4) | 2 }),
+        Files.readAllBytes(
+            new File(TestLittleEndian.SF_HISTORY + ".gz").toPath()),
+        Files.readAllBytes(new File(TestStreaming.WX).toPath()) };
+    for (byte[] input : inputs) {
+      Composite c = new Composite(new ByteArrayInputStream(input));
+      int width = c.getDx();
+      int size = width * c.getDy();
+      // unordered with duplicates and outside indices
+      int[] indices = { size - 1, 0, 1, -1, width + 2, 2 * width + 241, size,
+          size / 2, 1, width + 5 };
+      float[] values = new float[indices.length];
+      Data.getInstance().decodeValues(c, indices, values);
+      for (int i = 0; i < indices.length; i++) {
+        int index = indices[i];
+        float expected = index < 0 || index >= size ? Float.NaN
+            : c.getValue(index % width, index / width);
+        assertEquals(c.getProduct() + " index " + index, expected, values[i],
+            0.0);
+      }
+    }
+  }
+
+  /**
+   * extracting from loaded composites needs to give the same values with
+   * and without retained bytes
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testExtractComposite() throws Throwable {
+    double[][] coords = getCoordinates();
+    PointExtractor extractor = new PointExtractor(coords[0], coords[1]);
+    float[][] expected = extractor.extractFiles(FILES, null);
+    for (Retention retention : new Retention[] { Retention.KEEP,
+        Retention.HEADER }) {
+      float[][] series = new float[coords[0].length][FILES.size()];
+      for (int time = 0; time < FILES.size(); time++) {
+        Composite c = new Composite();
+        c.setRetention(retention);
+        try (FileInputStream in = new FileInputStream(FILES.get(time))) {
+          c.load(in);
+        }
+        extractor.extract(c, series, time);
+      }
+      for (int p = 0; p < series.length; p++) {
+        assertArrayEquals(retention.name(), expected[p], series[p], 0.0f);
+      }
+    }
+    // a region has an offset projection
+    Composite c = new Composite(new FileInputStream(TestStreaming.WX));
+    Composite region = c.region(0, 100, 900, 900);
+    float[][] series = new float[coords[0].length][1];
+    extractor.extract(region, series, 0);
+    for (int p = 0; p < series.length; p++) {
+      assertEquals("point " + p,
+          region.getValueAtCoord(new DPoint(coords[0][p], coords[1][p])),
+          series[p][0], 0.0);
+    }
+    // composites without projection have no values at coordinates
+    int[] indices = extractor.getIndices(TestRunLength.WIDTH, 3);
+    for (int index : indices) {
+      assertEquals(-1, index);
+    }
+  }
+
+  /**
+   * a missing file needs to be reported
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testMissingFile() throws Throwable {
+    double[][] coords = getCoordinates();
+    File missing = new File("src/test/data/wx/missing");
+    try {
+      new PointExtractor(coords[0], coords[1])
+          .extractFiles(Arrays.asList(FILES.get(0), missing), null);
+      fail("a missing file should throw an exception");
+    } catch (Exception e) {
+      assertTrue(e.getMessage(), e.getMessage().contains(missing.toString()));
+    }
+  }
+}
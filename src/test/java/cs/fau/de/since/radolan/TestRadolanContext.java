@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.QuantizedGrid;
+import com.bitplan.radolan.Testing;
+import cs.fau.de.since.radolan.Composite.Retention;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * test loading composites with an explicit configuration
+ * 
+ * @author wf
+ *
+ */
+public class TestRadolanContext extends Testing {
+
+  /**
+   * the defaults need to reflect the static configuration and the default
+   * options of the builder
+   */
+  @Test
+  public void testDefaults() throws Throwable {
+    RadolanContext context = RadolanContext.defaults();
+    assertEquals(Composite.useCache, context.isUseCache());
+    assertFalse(context.isStreaming());
+    assertFalse(context.isMapping());
+    assertEquals(Retention.KEEP, context.getRetention());
+    assertSame(GridFactory.PLAIN, context.getGridFactory());
+    assertNull(context.getDecodePool());
+    assertEquals(100, context.getRowsPerTask());
+    assertTrue(context.isCollectStatistics());
+    assertTrue(context.isLittleEndianTable());
+    assertTrue(context.isHeaderScanner());
+    assertEquals(4096, context.getCoordinatesPerTask());
+    assertEquals(8, context.getFilesPerTask());
+    RadolanContext copy = context.toBuilder().streaming(true).build();
+    assertTrue(copy.isStreaming());
+    assertFalse(context.isStreaming());
+    try {
+      RadolanContext.builder().rowsPerTask(0).build();
+      fail("rowsPerTask 0 should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("rowsPerTask must be positive", e.getMessage());
+    }
+    try {
+      RadolanContext.builder().filesPerTask(0).build();
+      fail("filesPerTask 0 should be rejected");
+    } catch (IllegalArgumentException e) {
+      assertEquals("filesPerTask must be positive", e.getMessage());
+    }
+    // the constructors and the context use the same default grid
+    byte[] bytes = Files.readAllBytes(new File(TestStreaming.WX).toPath());
+    Composite loaded = load(context, bytes);
+    Composite constructed = new Composite(new ByteArrayInputStream(bytes));
+    assertNotNull(loaded.PlainData);
+    assertNotNull(constructed.PlainData);
+    assertSame(loaded.getGrid().getClass(), constructed.getGrid().getClass());
+  }
+
+  /**
+   * load a composite from the given bytes with the given context
+   * 
+   * @param context
+   * @param bytes
+   * @return - the composite
+   * @throws Exception
+   */
+  public static Composite load(RadolanContext context, byte[] bytes)
+      throws Exception {
+    try {
+      return context.load(new ByteArrayInputStream(bytes));
+    } catch (Exception e) {
+      throw e;
+    } catch (Throwable t) {
+      throw new Exception(t);
+    }
+  }
+
+  /**
+   * composites with different configurations need to be loadable
+   * concurrently without touching the static configuration
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testConcurrentContexts() throws Throwable {
+    byte[] bytes = Files.readAllBytes(new File(TestStreaming.WX).toPath());
+    Composite expected = TestSingleByte.getWXComposite();
+    AtomicInteger initialized = new AtomicInteger();
+    RadolanContext base = RadolanContext.builder().useCache(false)
+        .postInit(c -> initialized.incrementAndGet()).build();
+    RadolanContext[] contexts = { base,
+        base.toBuilder().streaming(true).retention(Retention.NONE).build(),
+        base.toBuilder().gridFactory(GridFactory.QUANTIZED)
+            .collectStatistics(false).build(),
+        base.toBuilder().gridFactory(GridFactory.LAZY).build() };
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Composite>> futures = new ArrayList<Future<Composite>>();
+      for (int i = 0; i < 16; i++) {
+        RadolanContext context = contexts[i % contexts.length];
+        futures.add(executor.submit(() -> load(context, bytes)));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        Composite c = futures.get(i).get();
+        assertSame(contexts[i % contexts.length], c.getContext());
+        assertNull(c.error);
+        for (int y = 0; y < c.getPy(); y++) {
+          for (int x = 0; x < c.getPx(); x++) {
+            assertEquals(expected.getValue(x, y), c.getValue(x, y), 0.0);
+          }
+        }
+      }
+      assertEquals(16, initialized.get());
+      Composite streamed = futures.get(1).get();
+      assertTrue(streamed.isStreaming());
+      assertNull(streamed.header);
+      Composite quantized = futures.get(2).get();
+      assertTrue(quantized.getGrid() instanceof QuantizedGrid);
+      assertEquals(0, quantized.getStatistics().getTotal());
+    } finally {
+      executor.shutdown();
+    }
+    assertNull(Composite.getPostInit());
+  }
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.geo.DPoint;
+import com.bitplan.radolan.Testing;
+import cs.fau.de.since.radolan.Composite.Retention;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * test decoding only a region of a composite
+ * 
+ * @author wf
+ *
+ */
+public class TestRegion extends Testing {
+
+  public static byte[][] getInputs() throws Exception {
+    byte[][] inputs = { TestRunLength.getPG(
+        new int[] { 0x10, 16, (2 << 4) | 1, (1 << 4) | 0, (3 << 4) | 7 },
+        new int[] { 0x11, 18, (4 << 4) | 6 },
+        new int[] { 0x12, 255, 17, (3 << 4) | 2 }),
+        Files.readAllBytes(
+            new File(TestLittleEndian.SF_HISTORY + ".gz").toPath()),
+        Files.readAllBytes(new File(TestStreaming.WX).toPath()) };
+    return inputs;
+  }
+
+  /**
+   * check that the region has the values of the given composite
+   * 
+   * @param c
+   * @param region
+   * @param x
+   * @param y
+   * @param width
+   * @param height
+   */
+  public void checkRegion(Composite c, Composite region, int x, int y,
+      int width, int height) {
+    assertEquals(width, region.getGridWidth());
+    assertEquals(height, region.getGridHeight());
+    assertEquals(1, region.getDz());
+    assertEquals(c.getProduct(), region.getProduct());
+    assertEquals(c.getCaptureTime(), region.getCaptureTime());
+    for (int ry = 0; ry < height; ry++) {
+      for (int rx = 0; rx < width; rx++) {
+        float value = c.getValue(x + rx, y + ry);
+        assertEquals(c.getProduct() + " x=" + rx + " y=" + ry, value,
+            region.getValue(rx, ry), 0.0);
+      }
+    }
+    assertEquals(width * height, region.getStatistics().getTotal());
+    if (width == c.getGridWidth() && height == c.getGridHeight()
+        && c.getDz() == 1) {
+      assertEquals(c.getStatistics().toString(),
+          region.getStatistics().toString());
+    }
+  }
+
+  /**
+   * regions of all encodings decoded from the bytes, copied from the grid
+   * and parsed need to have the values of the composite
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testGridRegion() throws Throwable {
+    try (CompositeParser parser = new CompositeParser()) {
+      for (byte[] input : getInputs()) {
+        Composite c = new Composite(new ByteArrayInputStream(input));
+        Composite header = new Composite();
+        header.setRetention(Retention.HEADER);
+        header.load(new ByteArrayInputStream(input));
+        int[][] regions = { { 0, 0, c.getGridWidth(), c.getGridHeight() },
+            { 240, 1, 5, 2 }, { c.getGridWidth() - 7, c.getGridHeight() - 1, 7,
+                1 } };
+        for (int[] r : regions) {
+          checkRegion(c, c.region(r[0], r[1], r[2], r[3]), r[0], r[1], r[2],
+              r[3]);
+          checkRegion(c, header.region(r[0], r[1], r[2], r[3]), r[0], r[1],
+              r[2], r[3]);
+          checkRegion(c, parser.parseRegion(new ByteArrayInputStream(input),
+              r[0], r[1], r[2], r[3]), r[0], r[1], r[2], r[3]);
+        }
+      }
+    }
+  }
+
+  /**
+   * a region for coordinates needs to give the same values at the
+   * coordinates as the complete composite
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testGeoRegion() throws Throwable {
+    try (CompositeParser parser = new CompositeParser()) {
+      CornerPoints hesse = new CornerPoints(51.7, 7.7, 49.4, 10.3);
+      for (File file : TestPointExtractor.FILES) {
+        Composite c = new Composite(new FileInputStream(file));
+        Composite region = parser.parseRegion(new FileInputStream(file),
+            hesse);
+        assertTrue(region.getGridWidth() < c.getGridWidth() / 3);
+        assertTrue(region.getGridHeight() < c.getGridHeight() / 3);
+        DPoint origin = c.translateGridToLatLon(new DPoint(0, 0));
+        DPoint x0y0 = region.translateGridToLatLon(new DPoint(0, 0));
+        assertTrue(x0y0.x < origin.x);
+        for (double north = 49.4; north <= 51.7; north += 0.1) {
+          for (double east = 7.7; east <= 10.3; east += 0.1) {
+            DPoint coord = new DPoint(north, east);
+            // the coordinate is inside of the region
+            DPoint grid = region.translateLatLonToGrid(north, east);
+            assertTrue(grid.x > -0.5 && grid.x < region.getGridWidth() - 0.5);
+            assertTrue(grid.y > -0.5 && grid.y < region.getGridHeight() - 0.5);
+            assertEquals(c.getValueAtCoord(coord),
+                region.getValueAtCoord(coord), 0.0);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * a region of a region keeps the offset projection of its parent
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testNestedRegion() throws Throwable {
+    Composite c = new Composite(new FileInputStream(TestStreaming.WX));
+    CornerPoints hesse = new CornerPoints(51.7, 7.7, 49.4, 10.3);
+    int[][] regions = { { 0, 100, 900, 900 }, { 300, 400, 300, 200 } };
+    for (int[] r : regions) {
+      Composite region = c.region(r[0], r[1], r[2], r[3]);
+      Composite nested = region.region(10, 20, r[2] - 10, r[3] - 20);
+      assertEquals(c.getOffSetX() + (r[0] + 10) * c.getResX(),
+          nested.getOffSetX(), 1E-9);
+      assertEquals(c.getOffSetY() + (r[1] + 20) * c.getResY(),
+          nested.getOffSetY(), 1E-9);
+      // the parent region is not recalibrated
+      assertEquals(c.getOffSetX() + r[0] * c.getResX(), region.getOffSetX(),
+          1E-9);
+      checkRegion(c, nested, r[0] + 10, r[1] + 20, r[2] - 10, r[3] - 20);
+    }
+    // coordinates select the same cells in a region which covers them
+    Composite region = c.region(0, 100, 900, 900);
+    Composite geo = region.region(hesse);
+    Composite expected = c.region(hesse);
+    assertEquals(expected.getOffSetX(), geo.getOffSetX(), 1E-9);
+    assertEquals(expected.getOffSetY(), geo.getOffSetY(), 1E-9);
+    checkRegion(expected, geo, 0, 0, expected.getGridWidth(),
+        expected.getGridHeight());
+  }
+
+  /**
+   * invalid regions need to be reported
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testInvalidRegion() throws Throwable {
+    byte[][] inputs = getInputs();
+    Composite pg = new Composite(new ByteArrayInputStream(inputs[0]));
+    Composite wx = new Composite(new ByteArrayInputStream(inputs[2]));
+    Object[][] cases = { { wx, new int[] { -1, 0, 10, 10 }, "outside" },
+        { wx, new int[] { 1095, 0, 10, 10 }, "outside" },
+        { wx, new int[] { 0, 0, 0, 10 }, "outside" },
+        { wx, new CornerPoints(-20, 100, -30, 120), "outside" },
+        { pg, new CornerPoints(51.7, 7.7, 49.4, 10.3), "no projection" } };
+    for (Object[] test : cases) {
+      Composite c = (Composite) test[0];
+      try {
+        if (test[1] instanceof int[]) {
+          int[] r = (int[]) test[1];
+          c.region(r[0], r[1], r[2], r[3]);
+        } else {
+          c.region((CornerPoints) test[1]);
+        }
+        fail("invalid region should throw an exception");
+      } catch (Exception e) {
+        assertTrue(e.getMessage(), e.getMessage().contains((String) test[2]));
+      }
+    }
+  }
+}
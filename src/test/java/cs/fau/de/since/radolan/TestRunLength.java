@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.Testing;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * test the run length decoding
+ * 
+ * @author wf
+ *
+ */
+public class TestRunLength extends Testing {
+  public static final int WIDTH = 260;
+
+  /**
+   * get a local picture product with the given lines
+   * 
+   * @param lines
+   *          - the lines each starting with the line number byte without
+   *          newline
+   * @return the bytes of the product
+   */
+  public static byte[] getPG(int[]... lines) {
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    for (int[] line : lines) {
+      for (int value : line) {
+        data.write(value);
+      }
+      data.write(0x0A);
+    }
+    String format = "PG241650100000720BY%6dLV 6  1.0 19.0 28.0 37.0 46.0 55.0CS0MX 0MS 0<> BG%03d%03d\u0003";
+    int headerLength = String.format(format, 0, lines.length, WIDTH)
+        .length();
+    String header = String.format(format, headerLength + data.size(),
+        lines.length, WIDTH);
+    ByteArrayOutputStream bout = new ByteArrayOutputStream();
+    byte[] headerBytes = header.getBytes(StandardCharsets.ISO_8859_1);
+    bout.write(headerBytes, 0, headerBytes.length);
+    bout.write(data.toByteArray(), 0, data.size());
+    return bout.toByteArray();
+  }
+
+  /**
+   * test decoding the runs, offsets, no-data and border markings
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testRunLength() throws Throwable {
+    byte[] pg = getPG(
+        // two times level 1, one no-data, three border markings
+        new int[] { 0x10, 16, (2 << 4) | 1, (1 << 4) | 0, (3 << 4) | 7 },
+        // offset 2, four times level 6
+        new int[] { 0x11, 18, (4 << 4) | 6 },
+        // offset 239 continued by offset 1, three times level 2
+        new int[] { 0x12, 255, 17, (3 << 4) | 2 });
+    Composite c = new Composite(new ByteArrayInputStream(pg));
+    assertNull(c.error);
+    assertEquals(WIDTH, c.getPx());
+    assertEquals(3, c.getPy());
+    float[][] expected = new float[3][WIDTH];
+    for (float[] row : expected) {
+      Arrays.fill(row, Float.NaN);
+    }
+    expected[0][0] = 1.0f;
+    expected[0][1] = 1.0f;
+    for (int x = 2; x < 6; x++)
+      expected[1][x] = 55.0f;
+    for (int x = 240; x < 243; x++)
+      expected[2][x] = 19.0f;
+    // lines are not flipped
+    for (int y = 0; y < 3; y++) {
+      for (int x = 0; x < WIDTH; x++) {
+        assertEquals("x=" + x + " y=" + y, expected[y][x], c.getValue(x, y),
+            0.0);
+      }
+    }
+    assertEquals(3 * WIDTH, c.getStatistics().getTotal());
+    assertEquals(9, c.getStatistics().getCount());
+  }
+
+  /**
+   * check that the given product is rejected with the given message
+   * 
+   * @param pg
+   * @param message
+   */
+  public void checkError(byte[] pg, String message) {
+    try {
+      new Composite(new ByteArrayInputStream(pg));
+      fail("invalid product should throw an exception");
+    } catch (Throwable th) {
+      assertTrue(th.getMessage(), th.getMessage().contains(message));
+    }
+  }
+
+  /**
+   * test invalid lines
+   */
+  @Test
+  public void testInvalidRunLength() {
+    checkError(getPG(new int[] { 0x10, 15, (2 << 4) | 1 }),
+        "invalid offset value");
+    checkError(getPG(new int[] { 0x10, 255, 36, (2 << 4) | 1 }),
+        "destination size exceeded");
+    byte[] pg = getPG(new int[] { 0x10, 16, (2 << 4) | 1 });
+    byte[] unterminated = Arrays.copyOf(pg, pg.length - 1);
+    checkError(unterminated, "is not terminated");
+    // a newline after the data section does not terminate the last line
+    byte[] trailing = Arrays.copyOf(pg, pg.length + 1);
+    trailing[pg.length - 1] = (byte) ((1 << 4) | 1);
+    trailing[pg.length] = 0x0A;
+    checkError(trailing, "is not terminated");
+  }
+}
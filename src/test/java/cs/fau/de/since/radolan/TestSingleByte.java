@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.Testing;
+import cs.fau.de.since.radolan.Catalog.Unit;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test the single byte decoding
+ * 
+ * @author wf
+ *
+ */
+public class TestSingleByte extends Testing {
+
+  /**
+   * get the WX composite from the test data
+   * 
+   * @return the composite
+   * @throws Throwable
+   */
+  public static Composite getWXComposite() throws Throwable {
+    File wxFile = new File(
+        "src/test/data/wx/raa01-wx_10000-2007252215-dwd---bin");
+    assertTrue(wxFile.exists());
+    return new Composite(new FileInputStream(wxFile));
+  }
+
+  /**
+   * the table based decoding needs to give the same values as the conversion
+   * of each single raw byte - no-data gives NaN
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testTableDecoding() throws Throwable {
+    Composite c = getWXComposite();
+    assertNull(c.error);
+    assertEquals(Unit.Unit_dBZ, c.getDataUnit());
+    assertEquals(256, c.singleByteTable.length);
+    int last = c.getPy() - 1;
+    for (int y = 0; y <= last; y++) {
+      for (int x = 0; x < c.getPx(); x++) {
+        int raw = c.getByte(x, y) & 0xFF;
+        // 250 is the no-data code
+        float expected = raw == 250 ? Float.NaN
+            : Conversion.toDBZ((float) c.rvp6Raw(raw));
+        assertEquals(expected, c.getValue(x, last - y), 0.0);
+      }
+    }
+    assertEquals(c.getPx() * c.getPy(), c.getStatistics().getTotal());
+  }
+
+  /**
+   * the no-data code 250 decodes to NaN - before the unsigned comparison it
+   * was decoded to 92.5 dBZ like any other value
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testNoData() throws Throwable {
+    Composite c = getWXComposite();
+    assertTrue(Float.isNaN(c.singleByteTable[SingleByte.NO_DATA]));
+    assertEquals(92.5f,
+        Conversion.toDBZ((float) c.rvp6Raw(SingleByte.NO_DATA)), 0.0);
+    int noData = 0;
+    for (int y = 0; y < c.getPy(); y++) {
+      for (int x = 0; x < c.getPx(); x++) {
+        if ((c.getByte(x, y) & 0xFF) == SingleByte.NO_DATA)
+          noData++;
+      }
+    }
+    assertTrue(noData > 0);
+    assertEquals(noData, c.getStatistics().getCountNaN());
+  }
+}
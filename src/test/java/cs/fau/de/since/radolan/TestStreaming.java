@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2018 BITPlan GmbH
+ *
+ * http://www.bitplan.com
+ *
+ * This file is part of the Opensource project at:
+ * https://github.com/BITPlan/com.bitplan.radolan
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Parts which are derived from https://gitlab.cs.fau.de/since/radolan are also
+ * under MIT license.
+ */
+package cs.fau.de.since.radolan;
+
+import com.bitplan.radolan.Testing;
+import cs.fau.de.since.radolan.Composite.Retention;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * test decoding composites while reading them
+ * 
+ * @author wf
+ *
+ */
+public class TestStreaming extends Testing {
+  public static final String WX = "src/test/data/wx/raa01-wx_10000-2007252215-dwd---bin";
+
+  /**
+   * get a composite from the given bytes
+   * 
+   * @param bytes
+   * @param streaming
+   * @param gridFactory
+   * @return - the composite
+   * @throws Throwable
+   */
+  public Composite getComposite(byte[] bytes, boolean streaming,
+      GridFactory gridFactory) throws Throwable {
+    Composite c = new Composite();
+    c.setStreaming(streaming);
+    c.setGridFactory(gridFactory);
+    c.load(new ByteArrayInputStream(bytes));
+    return c;
+  }
+
+  /**
+   * check that streaming gives the same result as reading all bytes first
+   * 
+   * @param bytes
+   * @throws Throwable
+   */
+  public void checkStreaming(byte[] bytes) throws Throwable {
+    Composite c = getComposite(bytes, false, GridFactory.HEAP);
+    for (GridFactory gridFactory : new GridFactory[] { GridFactory.HEAP,
+        GridFactory.QUANTIZED, GridFactory.LAZY }) {
+      Composite streamed = getComposite(bytes, true, gridFactory);
+      assertNull(streamed.bytes);
+      assertEquals(c.header, streamed.header);
+      TestGrid.assertSameValues(c, streamed);
+      assertEquals(c.getStatistics().toString(),
+          streamed.getStatistics().toString());
+    }
+  }
+
+  /**
+   * test streaming the different encodings
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testStreaming() throws Throwable {
+    // gzipped little endian
+    checkStreaming(Files
+        .readAllBytes(new File(TestLittleEndian.SF_HISTORY + ".gz").toPath()));
+    // single byte
+    checkStreaming(Files.readAllBytes(new File(WX).toPath()));
+    // run length
+    checkStreaming(TestRunLength.getPG(
+        new int[] { 0x10, 16, (2 << 4) | 1, (1 << 4) | 0, (3 << 4) | 7 },
+        new int[] { 0x11, 18, (4 << 4) | 6 }));
+  }
+
+  /**
+   * the streaming option of the context switches the constructors to
+   * streaming
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testUseStreaming() throws Throwable {
+    Composite c = new Composite(new FileInputStream(WX),
+        RadolanContext.builder().streaming(true).build());
+    assertTrue(c.isStreaming());
+    assertNull(c.bytes);
+    TestGrid.assertSameValues(TestSingleByte.getWXComposite(), c);
+  }
+
+  /**
+   * truncated data needs to be reported
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testTruncated() throws Throwable {
+    byte[] bytes = Files.readAllBytes(new File(WX).toPath());
+    try {
+      getComposite(Arrays.copyOf(bytes, bytes.length - 1), true,
+          GridFactory.HEAP);
+      fail("truncated data should throw an exception");
+    } catch (Exception e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("too short"));
+    }
+    try {
+      getComposite(Arrays.copyOf(bytes, 30), true, GridFactory.HEAP);
+      fail("truncated header should throw an exception");
+    } catch (Exception e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("not terminated"));
+    }
+  }
+
+  /**
+   * test dropping the raw bytes after decoding
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testRetention() throws Throwable {
+    byte[] bytes = Files.readAllBytes(new File(WX).toPath());
+    Composite c = getComposite(bytes, false, GridFactory.HEAP);
+    assertEquals(Retention.KEEP, c.getRetention());
+    assertNotNull(c.bytes);
+    assertNotNull(c.header);
+
+    Composite header = new Composite();
+    header.setRetention(Retention.HEADER);
+    header.load(new ByteArrayInputStream(bytes));
+    assertNull(header.bytes);
+    assertEquals(c.header, header.header);
+    TestGrid.assertSameValues(c, header);
+
+    Composite none = new Composite(new ByteArrayInputStream(bytes),
+        RadolanContext.builder().retention(Retention.NONE)
+            .gridFactory(GridFactory.LAZY).build());
+    assertNull(none.bytes);
+    assertNull(none.header);
+    // the offset of the data section is kept
+    assertEquals(c.getDataOffset(), none.getDataOffset());
+    // the lazy grid still decodes from its own reference to the bytes
+    for (int y = 0; y < c.getPy(); y++) {
+      for (int x = 0; x < c.getPx(); x++) {
+        assertEquals(c.getValue(x, y), none.getValue(x, y), 0.0);
+      }
+    }
+  }
+
+  /**
+   * test loading memory mapped local files
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testMapping() throws Throwable {
+    for (String path : new String[] { WX,
+        TestLittleEndian.SF_HISTORY + ".gz" }) {
+      Composite c = new Composite(new FileInputStream(path));
+      String url = new File(path).toURI().toURL().toExternalForm();
+      for (boolean streaming : new boolean[] { false, true }) {
+        Composite mapped = new Composite(
+            RadolanContext.builder().mapping(true).build());
+        assertTrue(mapped.getContext().isMapping());
+        mapped.setStreaming(streaming);
+        mapped.load(url);
+        // mapped files are always decoded while reading
+        assertNull(mapped.bytes);
+        TestGrid.assertSameValues(c, mapped);
+      }
+    }
+  }
+}
@@ -24,14 +24,21 @@
 package cs.fau.de.since.radolan;
 
 import com.bitplan.geo.DPoint;
+import com.bitplan.geo.IPoint;
 import com.bitplan.radolan.Testing;
 import org.apache.commons.io.FileUtils;
 import org.junit.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * migrated to Java from
@@ -339,4 +346,137 @@ public class TestTranslate extends Testing {
       }
     }
   }
+
+  /**
+   * the projection table needs to give the same results as the translation
+   * functions and is shared by all composites of the same grid
+   */
+  @Test
+  public void testProjectionTable() {
+    Composite comp = Composite.NewDummy("RW", 900, 900);
+    ProjectionTable table = comp.getProjectionTable();
+    assertSame(table, Composite.NewDummy("SF", 900, 900).getProjectionTable());
+    assertNotSame(table,
+        Composite.NewDummy("RX", 900, 1100).getProjectionTable());
+    for (int y = 0; y < comp.getDy(); y += 7) {
+      for (int x = 0; x < comp.getDx(); x += 7) {
+        DPoint latLon = comp.translateGridToLatLon(new DPoint(x, y));
+        assertEquals(latLon.x, table.getLat(x, y), 1E-4);
+        assertEquals(latLon.y, table.getLon(x, y), 1E-4);
+      }
+    }
+    Random random = new Random(4711);
+    for (int i = 0; i < 10000; i++) {
+      double lat = 45 + random.nextDouble() * 12;
+      double lon = 1 + random.nextDouble() * 17;
+      DPoint p = comp.translateLatLonToGrid(lat, lon);
+      assertEquals(p.x, table.gridX(lat, lon), 0.0);
+      assertEquals(p.y, table.gridY(lat, lon), 0.0);
+      IPoint ip = new IPoint(p);
+      int index = table.gridIndex(lat, lon);
+      if (ip.x < 0 || ip.x >= comp.getDx() || ip.y < 0 || ip.y >= comp.getDy())
+        assertEquals(-1, index);
+      else
+        assertEquals(ip.y * comp.getDx() + ip.x, index);
+    }
+    // a modified projection does not use the table
+    comp.setOffSetX(comp.getOffSetX() + 1);
+    assertNull(comp.getProjectionTable());
+  }
+
+  /**
+   * the value at a coordinate needs to be the same with the projection table
+   * 
+   * @throws Throwable
+   */
+  @Test
+  public void testValueAtCoord() throws Throwable {
+    Composite c = TestLittleEndian.getSFComposite();
+    Random random = new Random(4711);
+    for (int i = 0; i < 10000; i++) {
+      double lat = 46 + random.nextDouble() * 10;
+      double lon = 2 + random.nextDouble() * 15;
+      IPoint p = new IPoint(c.translateLatLonToGrid(lat, lon));
+      assertEquals(c.getValue(p.x, p.y),
+          c.getValueAtCoord(new DPoint(lat, lon)), 0.0);
+    }
+  }
+
+  /**
+   * the batch translation needs to give the same results as the translation
+   * of each single coordinate - sequentially and in parallel
+   */
+  @Test
+  public void testBatchTranslate() {
+    Composite comp = Composite.NewDummy("RX", 900, 1100);
+    ProjectionTable table = comp.getProjectionTable();
+    int n = 20000;
+    double[] lat = new double[n];
+    double[] lon = new double[n];
+    Random random = new Random(4711);
+    for (int i = 0; i < n; i++) {
+      lat[i] = 45 + random.nextDouble() * 12;
+      lon[i] = 1 + random.nextDouble() * 17;
+    }
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (ForkJoinPool p : new ForkJoinPool[] { null, pool }) {
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] indices = new int[n];
+        int coordinatesPerTask = comp.getContext().getCoordinatesPerTask();
+        Translate.translate(comp, lat, lon, x, y, p, coordinatesPerTask);
+        table.gridIndices(lat, lon, indices, p, coordinatesPerTask);
+        for (int i = 0; i < n; i++) {
+          DPoint expected = comp.translateLatLonToGrid(lat[i], lon[i]);
+          assertEquals(expected.x, x[i], 0.0);
+          assertEquals(expected.y, y[i], 0.0);
+          assertEquals(table.gridIndex(lat[i], lon[i]), indices[i]);
+        }
+      }
+    } finally {
+      pool.shutdown();
+    }
+    double[] x = new double[1];
+    double[] y = new double[1];
+    new Composite().translateLatLonToGrid(new double[] { 50 },
+        new double[] { 10 }, x, y);
+    assertTrue(Double.isNaN(x[0]) && Double.isNaN(y[0]));
+  }
+
+  /**
+   * the shared calibration needs to give the same result as calibrating each
+   * composite
+   */
+  @Test
+  public void testCalibration() {
+    int[][] grids = { { 900, 900 }, { 460, 460 }, { 900, 1100 },
+        { 1100, 1200 }, { 1400, 1500 }, { 123, 456 } };
+    for (int[] grid : grids) {
+      Composite comp = Composite.NewDummy("SF", grid[0], grid[1]);
+      Composite expected = new Composite("SF", grid[0], grid[1]);
+      Translate.calibrateProjection(expected);
+      Calibration calibration = Calibration.of(grid[0], grid[1]);
+      if (calibration.isProjection()) {
+        assertSame(calibration, comp.getCalibration());
+      } else {
+        // unknown grids e.g. of regions are not cached
+        assertNotSame(calibration, comp.getCalibration());
+        assertNull(comp.getProjectionTable());
+      }
+      assertEquals(expected.isProjection(), comp.isProjection());
+      assertEquals(expected.getOffSetX(), comp.getOffSetX(), 0.0);
+      assertEquals(expected.getOffSetY(), comp.getOffSetY(), 0.0);
+      assertEquals(expected.getResX(), comp.getResX(), 0.0);
+      assertEquals(expected.getResY(), comp.getResY(), 0.0);
+      if (expected.getBounds() == null) {
+        assertNull(comp.getBounds());
+      } else {
+        assertEquals(expected.getBounds().getTopLeft().x,
+            comp.getBounds().getTopLeft().x, 0.0);
+        assertEquals(expected.getBounds().getBottomRight().y,
+            comp.getBounds().getBottomRight().y, 0.0);
+      }
+    }
+  }
 }